@@ -0,0 +1,46 @@
+package com.ginkgooai.core.gatekeeper.audit;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A change to be recorded in the audit trail. Publish it with
+ * {@code ApplicationEventPublisher}; it is captured only once the surrounding
+ * transaction has committed.
+ */
+@Data
+@NoArgsConstructor
+public class AuditEvent {
+    private String id;
+
+    private long occurredAt;
+
+    private String workspaceId;
+
+    private String actorId;
+
+    private String action;
+
+    private String entityType;
+
+    private String entityId;
+
+    private Map<String, Object> details;
+
+    public static AuditEvent of(String workspaceId, String actorId, String action, String entityType, String entityId,
+                                Map<String, Object> details) {
+        AuditEvent event = new AuditEvent();
+        event.setId(UUID.randomUUID().toString());
+        event.setOccurredAt(System.currentTimeMillis());
+        event.setWorkspaceId(workspaceId);
+        event.setActorId(actorId);
+        event.setAction(action);
+        event.setEntityType(entityType);
+        event.setEntityId(entityId);
+        event.setDetails(details);
+        return event;
+    }
+}
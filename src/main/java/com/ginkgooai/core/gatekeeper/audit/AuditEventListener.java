@@ -0,0 +1,25 @@
+package com.ginkgooai.core.gatekeeper.audit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Hands audit events to the writer after commit, so rolled-back changes are never audited
+ * and the request transaction does not wait on the audit insert. Events published outside
+ * a transaction are captured immediately.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "gatekeeper.audit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AuditEventListener {
+
+    private final AuditTrailWriter auditTrailWriter;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAuditEvent(AuditEvent event) {
+        auditTrailWriter.enqueue(event);
+    }
+}
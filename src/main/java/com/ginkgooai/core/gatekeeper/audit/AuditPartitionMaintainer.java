@@ -0,0 +1,56 @@
+package com.ginkgooai.core.gatekeeper.audit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Keeps monthly {@code audit_event} partitions created ahead of time, so events land in a
+ * proper partition instead of {@code audit_event_default}. Old partitions can be detached or
+ * dropped for retention without touching the live table.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "gatekeeper.audit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AuditPartitionMaintainer {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${gatekeeper.audit.partitions-ahead:2}")
+    private int partitionsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${gatekeeper.audit.partition-cron:0 0 3 * * *}")
+    public void ensurePartitions() {
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= partitionsAhead; i++) {
+            createPartition(month.plusMonths(i));
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        String sql = "CREATE TABLE IF NOT EXISTS audit_event_" + month.format(SUFFIX)
+                + " PARTITION OF audit_event FOR VALUES FROM ('" + from + "') TO ('" + to + "')";
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (Exception e) {
+            // Usually rows for this month already sit in the default partition
+            log.warn("Failed to create audit partition for {}", month, e);
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.ginkgooai.core.gatekeeper.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RList;
+import org.redisson.api.RLock;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers audit events in a bounded in-memory queue and writes them to {@code audit_event}
+ * in batches from the scheduler, off the request path.
+ * <p>
+ * Events arriving while the queue is full go to a second bounded buffer that the next flush
+ * spills to Redis with one RPUSH per batch. If that buffer is full as well, the producer
+ * spills a batch itself, so a burst costs one Redis round trip per batch instead of an
+ * unbounded number of in-flight commands.
+ * <p>
+ * When a batch insert fails or takes longer than the slow threshold, events are spilled to
+ * the Redis list instead and the writer backs off from Postgres for a while. Spilled events are drained back once the queue is empty and the
+ * database is healthy, by one node at a time: each batch is moved atomically into a
+ * processing list and only deleted from there after its insert commits. Whatever a crashed
+ * or failed drain left in the processing list is written first on the next flush, including
+ * the first one after startup; inserts ignore duplicates, so a re-drained event is written once.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "gatekeeper.audit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AuditTrailWriter {
+
+    /**
+     * Hash-tagged so the spill and processing lists share a cluster slot for the move script.
+     */
+    private static final String SPILL_KEY = "{gatekeeper:audit:spill}";
+
+    private static final String PROCESSING_KEY = SPILL_KEY + ":processing";
+
+    private static final String DRAIN_LOCK_KEY = SPILL_KEY + ":lock";
+
+    /**
+     * Moves up to ARGV[1] events from the head of the spill list to the processing list.
+     */
+    private static final String MOVE_TO_PROCESSING_SCRIPT = """
+            local items = redis.call('lrange', KEYS[1], 0, tonumber(ARGV[1]) - 1)
+            if #items > 0 then
+                redis.call('rpush', KEYS[2], unpack(items))
+                redis.call('ltrim', KEYS[1], #items, -1)
+            end
+            return items
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO audit_event (id, occurred_at, workspace_id, actor_id, action, entity_type, entity_id, details)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?::jsonb)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private final BlockingQueue<AuditEvent> queue;
+
+    private final BlockingQueue<AuditEvent> overflow;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final RedissonClient redissonClient;
+
+    private final RList<String> spill;
+
+    private final RList<String> processing;
+
+    private final int batchSize;
+
+    private final long slowThresholdMillis;
+
+    private final long backoffMillis;
+
+    private final AtomicLong spillSize = new AtomicLong();
+
+    private final Timer writeTimer;
+
+    private final Timer lagTimer;
+
+    private final Counter writtenCounter;
+
+    private final Counter spilledCounter;
+
+    private final Counter droppedCounter;
+
+    private volatile long backoffUntil;
+
+    @Autowired
+    public AuditTrailWriter(DataSource dataSource,
+                            PlatformTransactionManager transactionManager,
+                            RedissonClient redissonClient,
+                            MeterRegistry meterRegistry,
+                            @Value("${gatekeeper.audit.queue-capacity:10000}") int queueCapacity,
+                            @Value("${gatekeeper.audit.overflow-capacity:10000}") int overflowCapacity,
+                            @Value("${gatekeeper.audit.batch-size:500}") int batchSize,
+                            @Value("${gatekeeper.audit.slow-threshold:2s}") Duration slowThreshold,
+                            @Value("${gatekeeper.audit.backoff:30s}") Duration backoff,
+                            @Value("${gatekeeper.audit.statement-timeout:10s}") Duration statementTimeout) {
+        this(jdbcTemplate(dataSource, statementTimeout), new TransactionTemplate(transactionManager), redissonClient,
+                meterRegistry, queueCapacity, overflowCapacity, batchSize, slowThreshold, backoff);
+    }
+
+    AuditTrailWriter(JdbcTemplate jdbcTemplate,
+                     TransactionTemplate transactionTemplate,
+                     RedissonClient redissonClient,
+                     MeterRegistry meterRegistry,
+                     int queueCapacity,
+                     int overflowCapacity,
+                     int batchSize,
+                     Duration slowThreshold,
+                     Duration backoff) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.overflow = new ArrayBlockingQueue<>(overflowCapacity);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.redissonClient = redissonClient;
+        this.spill = redissonClient.getList(SPILL_KEY, StringCodec.INSTANCE);
+        this.processing = redissonClient.getList(PROCESSING_KEY, StringCodec.INSTANCE);
+        this.batchSize = batchSize;
+        this.slowThresholdMillis = slowThreshold.toMillis();
+        this.backoffMillis = backoff.toMillis();
+
+        Gauge.builder("gatekeeper.audit.queue.size", queue, BlockingQueue::size)
+                .description("Audit events waiting in memory")
+                .register(meterRegistry);
+        Gauge.builder("gatekeeper.audit.overflow.size", overflow, BlockingQueue::size)
+                .description("Audit events waiting in memory to be spilled to Redis")
+                .register(meterRegistry);
+        Gauge.builder("gatekeeper.audit.spill.size", spillSize, AtomicLong::get)
+                .description("Audit events spilled to Redis, as of the last flush")
+                .register(meterRegistry);
+        this.writeTimer = Timer.builder("gatekeeper.audit.write")
+                .description("Time to insert one audit batch")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("gatekeeper.audit.lag")
+                .description("Age of the oldest event in each written batch")
+                .register(meterRegistry);
+        this.writtenCounter = meterRegistry.counter("gatekeeper.audit.events", "outcome", "written");
+        this.spilledCounter = meterRegistry.counter("gatekeeper.audit.events", "outcome", "spilled");
+        this.droppedCounter = meterRegistry.counter("gatekeeper.audit.events", "outcome", "dropped");
+    }
+
+    /**
+     * Does not wait on Postgres. Only when both buffers are full does the caller spill a batch
+     * to Redis itself, which slows producers down to the rate Redis accepts batches.
+     */
+    public void enqueue(AuditEvent event) {
+        if (queue.offer(event) || overflow.offer(event)) {
+            return;
+        }
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        overflow.drainTo(batch, batchSize - 1);
+        batch.add(event);
+        spill(batch);
+    }
+
+    @Scheduled(fixedDelayString = "${gatekeeper.audit.flush-interval-ms:500}")
+    public synchronized void flush() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (overflow.drainTo(batch, batchSize) > 0) {
+            spill(batch);
+            batch.clear();
+        }
+        while (queue.drainTo(batch, batchSize) > 0) {
+            if (isBackingOff() || !write(batch)) {
+                spill(batch);
+            }
+            batch.clear();
+        }
+        drainSpill();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void drainSpill() {
+        RLock drainLock = redissonClient.getLock(DRAIN_LOCK_KEY);
+        try {
+            spillSize.set(spill.size() + processing.size());
+            if (isBackingOff() || !queue.isEmpty() || !drainLock.tryLock()) {
+                return;
+            }
+            // Left behind by a failed write or by a node that stopped mid-drain
+            if (!processing.isEmpty() && !writeProcessing(processing.readAll())) {
+                return;
+            }
+            while (!isBackingOff() && queue.isEmpty()) {
+                List<String> values = redissonClient.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE,
+                        MOVE_TO_PROCESSING_SCRIPT, RScript.ReturnType.MULTI,
+                        List.<Object>of(SPILL_KEY, PROCESSING_KEY), String.valueOf(batchSize));
+                if (values == null || values.isEmpty() || !writeProcessing(values)) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to drain spilled audit events", e);
+        } finally {
+            if (drainLock.isHeldByCurrentThread()) {
+                drainLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes the events in the processing list and clears it once they are committed. On
+     * failure the readable events stay there for the next attempt.
+     */
+    private boolean writeProcessing(List<String> values) {
+        List<AuditEvent> batch = new ArrayList<>(values.size());
+        for (String value : values) {
+            try {
+                batch.add(objectMapper.readValue(value, AuditEvent.class));
+            } catch (JsonProcessingException e) {
+                log.warn("Dropping unreadable spilled audit event", e);
+                processing.remove(value);
+                droppedCounter.increment();
+            }
+        }
+        if (!write(batch)) {
+            return false;
+        }
+        processing.delete();
+        spillSize.addAndGet(-values.size());
+        return true;
+    }
+
+    private boolean write(List<AuditEvent> batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        long oldest = Long.MAX_VALUE;
+        for (AuditEvent event : batch) {
+            rows.add(new Object[]{
+                    event.getId(),
+                    new Timestamp(event.getOccurredAt()),
+                    event.getWorkspaceId(),
+                    event.getActorId(),
+                    event.getAction(),
+                    event.getEntityType(),
+                    event.getEntityId(),
+                    toJson(event.getDetails())
+            });
+            oldest = Math.min(oldest, event.getOccurredAt());
+        }
+
+        long startTime = System.currentTimeMillis();
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+        } catch (Exception e) {
+            log.warn("Failed to write {} audit events, spilling to Redis", batch.size(), e);
+            backOff();
+            return false;
+        }
+
+        long elapsed = System.currentTimeMillis() - startTime;
+        writeTimer.record(elapsed, TimeUnit.MILLISECONDS);
+        lagTimer.record(System.currentTimeMillis() - oldest, TimeUnit.MILLISECONDS);
+        writtenCounter.increment(batch.size());
+        if (elapsed > slowThresholdMillis) {
+            log.warn("Audit batch of {} took {}ms, spilling to Redis for {}ms", batch.size(), elapsed, backoffMillis);
+            backOff();
+        }
+        return true;
+    }
+
+    private void spill(List<AuditEvent> batch) {
+        try {
+            spill.addAll(serialize(batch));
+            spilledCounter.increment(batch.size());
+        } catch (Exception e) {
+            log.error("Failed to spill {} audit events to Redis, dropping them", batch.size(), e);
+            droppedCounter.increment(batch.size());
+        }
+    }
+
+    private List<String> serialize(List<AuditEvent> batch) {
+        List<String> values = new ArrayList<>(batch.size());
+        for (AuditEvent event : batch) {
+            values.add(toJson(event));
+        }
+        return values;
+    }
+
+    private String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Audit event is not serializable", e);
+        }
+    }
+
+    private static JdbcTemplate jdbcTemplate(DataSource dataSource, Duration statementTimeout) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setQueryTimeout((int) Math.max(1, statementTimeout.toSeconds()));
+        return jdbcTemplate;
+    }
+
+    private boolean isBackingOff() {
+        return System.currentTimeMillis() < backoffUntil;
+    }
+
+    private void backOff() {
+        backoffUntil = System.currentTimeMillis() + backoffMillis;
+    }
+}
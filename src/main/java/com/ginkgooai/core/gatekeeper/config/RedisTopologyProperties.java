@@ -0,0 +1,52 @@
+package com.ginkgooai.core.gatekeeper.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Client-side Redis tuning on top of {@code spring.data.redis}. The topology itself
+ * (standalone, {@code sentinel.*} or {@code cluster.*}) is read from the Spring properties
+ * so Lettuce and Redisson always talk to the same servers.
+ */
+@Data
+@ConfigurationProperties(prefix = "gatekeeper.redis")
+public class RedisTopologyProperties {
+
+    private Lettuce lettuce = new Lettuce();
+
+    private Redisson redisson = new Redisson();
+
+    @Data
+    public static class Lettuce {
+        /**
+         * Lettuce {@code ReadFrom} for the cache client, which serves the form cache lookups,
+         * e.g. replicaPreferred, anyReplica, upstream, or anyReplicaPreferred, which spreads
+         * reads over all replicas and falls back to the primary. Writes always go to the
+         * primary. Empty disables read routing.
+         */
+        private String readFrom = "anyReplicaPreferred";
+    }
+
+    @Data
+    public static class Redisson {
+        /**
+         * Where Redisson sends reads: MASTER, SLAVE or MASTER_SLAVE. Locks, queues and
+         * idempotency claims need read-your-writes, hence MASTER by default.
+         */
+        private String readMode = "MASTER";
+
+        private int masterConnectionPoolSize = 32;
+
+        private int masterConnectionMinimumIdleSize = 8;
+
+        private int slaveConnectionPoolSize = 32;
+
+        private int slaveConnectionMinimumIdleSize = 8;
+
+        private int subscriptionConnectionPoolSize = 25;
+
+        private int connectTimeout = 10000;
+
+        private int timeout = 3000;
+    }
+}
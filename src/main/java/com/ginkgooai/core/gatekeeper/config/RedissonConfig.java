@@ -2,24 +2,84 @@ package com.ginkgooai.core.gatekeeper.config;
 
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
+import org.redisson.config.ClusterServersConfig;
 import org.redisson.config.Config;
+import org.redisson.config.ReadMode;
+import org.redisson.config.SentinelServersConfig;
+import org.redisson.config.SingleServerConfig;
 import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.util.ObjectUtils;
 
+import java.util.List;
+
 @Configuration
+@EnableConfigurationProperties(RedisTopologyProperties.class)
 public class RedissonConfig {
 
     @Bean
-    public RedissonClient redissonClient(RedisProperties redisProperties) {
-        String prefix = "redis://";
+    public RedissonClient redissonClient(RedisProperties redisProperties, RedisTopologyProperties topologyProperties) {
+        String prefix = redisProperties.getSsl().isEnabled() ? "rediss://" : "redis://";
+        RedisTopologyProperties.Redisson tuning = topologyProperties.getRedisson();
         Config config = new Config();
-        config.useSingleServer()
-                .setAddress(prefix + redisProperties.getHost() + ":" + redisProperties.getPort());
-        if (!ObjectUtils.isEmpty(redisProperties.getPassword())) {
-            config.useSingleServer().setPassword(redisProperties.getPassword());
+
+        // Same precedence as Spring Boot's Lettuce factory (sentinel, then cluster, then standalone),
+        // so both clients always connect to the same servers
+        if (redisProperties.getSentinel() != null && !ObjectUtils.isEmpty(redisProperties.getSentinel().getNodes())) {
+            RedisProperties.Sentinel sentinelProperties = redisProperties.getSentinel();
+            SentinelServersConfig sentinel = config.useSentinelServers()
+                    .setMasterName(sentinelProperties.getMaster())
+                    .addSentinelAddress(addresses(prefix, sentinelProperties.getNodes()))
+                    .setDatabase(redisProperties.getDatabase())
+                    .setReadMode(ReadMode.valueOf(tuning.getReadMode()))
+                    .setMasterConnectionPoolSize(tuning.getMasterConnectionPoolSize())
+                    .setMasterConnectionMinimumIdleSize(tuning.getMasterConnectionMinimumIdleSize())
+                    .setSlaveConnectionPoolSize(tuning.getSlaveConnectionPoolSize())
+                    .setSlaveConnectionMinimumIdleSize(tuning.getSlaveConnectionMinimumIdleSize())
+                    .setSubscriptionConnectionPoolSize(tuning.getSubscriptionConnectionPoolSize())
+                    .setConnectTimeout(tuning.getConnectTimeout())
+                    .setTimeout(tuning.getTimeout());
+            if (!ObjectUtils.isEmpty(redisProperties.getPassword())) {
+                sentinel.setPassword(redisProperties.getPassword());
+            }
+            if (!ObjectUtils.isEmpty(sentinelProperties.getPassword())) {
+                sentinel.setSentinelPassword(sentinelProperties.getPassword());
+            }
+        } else if (redisProperties.getCluster() != null && !ObjectUtils.isEmpty(redisProperties.getCluster().getNodes())) {
+            ClusterServersConfig cluster = config.useClusterServers()
+                    .addNodeAddress(addresses(prefix, redisProperties.getCluster().getNodes()))
+                    .setReadMode(ReadMode.valueOf(tuning.getReadMode()))
+                    .setMasterConnectionPoolSize(tuning.getMasterConnectionPoolSize())
+                    .setMasterConnectionMinimumIdleSize(tuning.getMasterConnectionMinimumIdleSize())
+                    .setSlaveConnectionPoolSize(tuning.getSlaveConnectionPoolSize())
+                    .setSlaveConnectionMinimumIdleSize(tuning.getSlaveConnectionMinimumIdleSize())
+                    .setSubscriptionConnectionPoolSize(tuning.getSubscriptionConnectionPoolSize())
+                    .setConnectTimeout(tuning.getConnectTimeout())
+                    .setTimeout(tuning.getTimeout());
+            if (!ObjectUtils.isEmpty(redisProperties.getPassword())) {
+                cluster.setPassword(redisProperties.getPassword());
+            }
+        } else {
+            SingleServerConfig single = config.useSingleServer()
+                    .setAddress(prefix + redisProperties.getHost() + ":" + redisProperties.getPort())
+                    .setDatabase(redisProperties.getDatabase())
+                    .setConnectionPoolSize(tuning.getMasterConnectionPoolSize())
+                    .setConnectionMinimumIdleSize(tuning.getMasterConnectionMinimumIdleSize())
+                    .setSubscriptionConnectionPoolSize(tuning.getSubscriptionConnectionPoolSize())
+                    .setConnectTimeout(tuning.getConnectTimeout())
+                    .setTimeout(tuning.getTimeout());
+            if (!ObjectUtils.isEmpty(redisProperties.getPassword())) {
+                single.setPassword(redisProperties.getPassword());
+            }
         }
         return Redisson.create(config);
     }
-}
\ No newline at end of file
+
+    private static String[] addresses(String prefix, List<String> nodes) {
+        return nodes.stream()
+                .map(node -> node.contains("://") ? node : prefix + node)
+                .toArray(String[]::new);
+    }
+}
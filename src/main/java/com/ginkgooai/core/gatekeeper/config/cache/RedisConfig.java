@@ -4,12 +4,24 @@ import com.fasterxml.jackson.databind.*;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ginkgooai.core.gatekeeper.config.RedisTopologyProperties;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.models.role.RedisNodeDescription;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
 
 
 @Configuration
@@ -32,6 +44,57 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * Routes reads of the cache client to replicas; writes stay on the primary. The form cache
+     * reads its snapshots and missing markers through this client. Applies to sentinel and
+     * cluster topologies, and to a standalone primary whose replicas Lettuce discovers itself.
+     */
+    @Bean
+    public LettuceClientConfigurationBuilderCustomizer lettuceReadFromCustomizer(RedisTopologyProperties topologyProperties) {
+        ReadFrom readFrom = readFrom(topologyProperties.getLettuce().getReadFrom());
+        return builder -> {
+            if (readFrom != null) {
+                builder.readFrom(readFrom);
+            }
+        };
+    }
+
+    /**
+     * Rebuilds the Lettuce pool from {@code spring.data.redis.lettuce.pool} with a known JMX
+     * name, so {@link RedisPoolMetrics} can find the live pools.
+     */
+    @Bean
+    public LettuceClientConfigurationBuilderCustomizer lettucePoolCustomizer(RedisProperties redisProperties) {
+        RedisProperties.Pool pool = redisProperties.getLettuce().getPool();
+        return builder -> {
+            if (builder instanceof LettucePoolingClientConfiguration.LettucePoolingClientConfigurationBuilder pooling) {
+                pooling.poolConfig(lettucePoolConfig(pool));
+            }
+        };
+    }
+
+    public static ReadFrom readFrom(String name) {
+        if (!StringUtils.hasText(name)) {
+            return null;
+        }
+        return AnyReplicaPreferred.NAME.equalsIgnoreCase(name) ? new AnyReplicaPreferred() : ReadFrom.valueOf(name);
+    }
+
+    public static GenericObjectPoolConfig<StatefulConnection<?, ?>> lettucePoolConfig(RedisProperties.Pool pool) {
+        GenericObjectPoolConfig<StatefulConnection<?, ?>> config = new GenericObjectPoolConfig<>();
+        config.setMaxTotal(pool.getMaxActive());
+        config.setMaxIdle(pool.getMaxIdle());
+        config.setMinIdle(pool.getMinIdle());
+        if (pool.getTimeBetweenEvictionRuns() != null) {
+            config.setTimeBetweenEvictionRuns(pool.getTimeBetweenEvictionRuns());
+        }
+        if (pool.getMaxWait() != null) {
+            config.setMaxWait(pool.getMaxWait());
+        }
+        config.setJmxNamePrefix(RedisPoolMetrics.LETTUCE_POOL_JMX_PREFIX);
+        return config;
+    }
+
     private GenericJackson2JsonRedisSerializer createGenericJackson2JsonRedisSerializer() {
         // Create ObjectMapper with custom configuration
         ObjectMapper objectMapper = JsonMapper.builder()
@@ -47,4 +110,27 @@ public class RedisConfig {
         return new GenericJackson2JsonRedisSerializer(objectMapper);
     }
 
+    /**
+     * Reads from a random connected replica, or from the primary while there is none.
+     * Lettuce's own {@code replicaPreferred} is order sensitive and always picks the first
+     * replica, so it cannot spread reads over more than one.
+     */
+    static final class AnyReplicaPreferred extends ReadFrom {
+
+        static final String NAME = "anyReplicaPreferred";
+
+        @Override
+        public List<RedisNodeDescription> select(Nodes nodes) {
+            List<RedisNodeDescription> replicas = new ArrayList<>();
+            List<RedisNodeDescription> upstream = new ArrayList<>();
+            for (RedisNodeDescription node : nodes) {
+                if (node.getRole().isReplica()) {
+                    replicas.add(node);
+                } else if (node.getRole().isUpstream()) {
+                    upstream.add(node);
+                }
+            }
+            return replicas.isEmpty() ? upstream : replicas;
+        }
+    }
 }
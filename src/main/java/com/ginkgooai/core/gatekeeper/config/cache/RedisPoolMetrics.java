@@ -0,0 +1,89 @@
+package com.ginkgooai.core.gatekeeper.config.cache;
+
+import com.ginkgooai.core.gatekeeper.config.RedisTopologyProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.stereotype.Component;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Publishes live usage of the Lettuce connection pools, read from the commons-pool2 MBeans
+ * registered under {@link #LETTUCE_POOL_JMX_PREFIX}, so dashboards can put Lettuce's command
+ * latency metrics next to how many connections were busy or waited for. Redisson keeps its
+ * pools internal, so only its configured sizes are published.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisPoolMetrics implements MeterBinder {
+
+    static final String LETTUCE_POOL_JMX_PREFIX = "gatekeeper-redis-lettuce";
+
+    private final RedisProperties redisProperties;
+
+    private final RedisTopologyProperties topologyProperties;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        RedisProperties.Pool lettucePool = redisProperties.getLettuce().getPool();
+        if (lettucePool.getEnabled() == null || lettucePool.getEnabled()) {
+            // Lettuce creates its pools lazily, one per connection type, so look them up on every read
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName pools = lettucePools();
+            live(registry, "gatekeeper.redis.pool.active", "Lettuce connections currently borrowed", server, pools, "NumActive");
+            live(registry, "gatekeeper.redis.pool.idle", "Lettuce connections idle in the pool", server, pools, "NumIdle");
+            live(registry, "gatekeeper.redis.pool.waiters", "Threads waiting to borrow a Lettuce connection", server, pools, "NumWaiters");
+            configured(registry, "lettuce", "max-active", lettucePool.getMaxActive());
+        }
+
+        RedisTopologyProperties.Redisson redisson = topologyProperties.getRedisson();
+        configured(registry, "redisson", "master-max", redisson.getMasterConnectionPoolSize());
+        configured(registry, "redisson", "master-min-idle", redisson.getMasterConnectionMinimumIdleSize());
+        configured(registry, "redisson", "replica-max", redisson.getSlaveConnectionPoolSize());
+        configured(registry, "redisson", "replica-min-idle", redisson.getSlaveConnectionMinimumIdleSize());
+        configured(registry, "redisson", "subscription-max", redisson.getSubscriptionConnectionPoolSize());
+    }
+
+    private static void live(MeterRegistry registry, String name, String description,
+                             MBeanServer server, ObjectName pools, String attribute) {
+        Gauge.builder(name, () -> sum(server, pools, attribute))
+                .description(description)
+                .tag("client", "lettuce")
+                .register(registry);
+    }
+
+    private static void configured(MeterRegistry registry, String client, String limit, int value) {
+        Gauge.builder("gatekeeper.redis.pool.configured", () -> value)
+                .description("Configured Redis connection pool size (a setting, not live usage)")
+                .tag("client", client)
+                .tag("limit", limit)
+                .register(registry);
+    }
+
+    private static double sum(MBeanServer server, ObjectName pools, String attribute) {
+        double total = 0;
+        for (ObjectName pool : server.queryNames(pools, null)) {
+            try {
+                total += ((Number) server.getAttribute(pool, attribute)).doubleValue();
+            } catch (JMException e) {
+                // Pool was closed between the query and the read
+            }
+        }
+        return total;
+    }
+
+    private static ObjectName lettucePools() {
+        try {
+            return new ObjectName("org.apache.commons.pool2:type=GenericObjectPool,name=" + LETTUCE_POOL_JMX_PREFIX + "*");
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ginkgooai.core.gatekeeper.config.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "gatekeeper.tenancy")
+public class TenancyProperties {
+
+    /**
+     * When disabled the shared pool is used directly, without quotas or routing.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a request may wait for its workspace quota and a pooled connection together.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Fraction of the shared pool one unit of weight may hold at once. With the default
+     * 0.25 a workspace of weight 1 can use a quarter of the pool, weight 2 half of it.
+     */
+    private double sharePerWeight = 0.25;
+
+    private double defaultWeight = 1.0;
+
+    /**
+     * Workspaces kept in memory with their own quota. Beyond this, the least recently used
+     * idle ones are evicted and start afresh on their next request.
+     */
+    private int maxTrackedTenants = 10000;
+
+    /**
+     * Workspaces that get their own metric tags; the rest are tagged "other".
+     */
+    private int maxTaggedTenants = 200;
+
+    private Map<String, Tenant> tenants = new LinkedHashMap<>();
+
+    @Data
+    public static class Tenant {
+        private double weight = 1.0;
+
+        /**
+         * Schema to switch to on checkout from the shared pool.
+         */
+        private String schema;
+
+        /**
+         * JDBC URL of a dedicated database; takes precedence over {@code schema}.
+         */
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maxPoolSize = 5;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ginkgooai.core.gatekeeper.config.datasource;
+
+/**
+ * Workspace the current thread acquires database connections for. Set per request by
+ * {@link TenantContextInterceptor}; background work that runs on behalf of a workspace
+ * (e.g. streaming exports) sets it explicitly. Unset means system work.
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static void set(String workspaceId) {
+        if (workspaceId == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(workspaceId);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
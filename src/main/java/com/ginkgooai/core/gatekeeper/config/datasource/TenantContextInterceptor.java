@@ -0,0 +1,28 @@
+package com.ginkgooai.core.gatekeeper.config.datasource;
+
+import com.ginkgooai.core.common.utils.ContextUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Copies the workspace resolved by {@code ContextsInterceptor} into {@link TenantContext}.
+ */
+public class TenantContextInterceptor implements AsyncHandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        TenantContext.set(ContextUtils.getWorkspaceId());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        TenantContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        TenantContext.clear();
+    }
+}
@@ -0,0 +1,84 @@
+package com.ginkgooai.core.gatekeeper.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(TenancyProperties.class)
+public class TenantDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource sharedDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource sharedDataSource, TenancyProperties tenancyProperties,
+                                 MeterRegistry meterRegistry) {
+        if (!tenancyProperties.isEnabled()) {
+            return sharedDataSource;
+        }
+        return new TenantRoutingDataSource(sharedDataSource, tenancyProperties, meterRegistry);
+    }
+
+    /**
+     * Migrates the shared schema, then every workspace routed to its own schema or database
+     * with the same scripts and settings. A failed tenant migration fails startup, so no node
+     * serves a routed workspace whose tables are missing or behind.
+     */
+    @Bean
+    public FlywayMigrationStrategy tenantFlywayMigrationStrategy(HikariDataSource sharedDataSource,
+                                                                 TenancyProperties tenancyProperties) {
+        return flyway -> {
+            flyway.migrate();
+            if (!tenancyProperties.isEnabled()) {
+                return;
+            }
+            tenancyProperties.getTenants().forEach((workspaceId, tenant) -> {
+                Flyway tenantFlyway = tenantFlyway(flyway, sharedDataSource, tenant);
+                if (tenantFlyway != null) {
+                    MigrateResult result = tenantFlyway.migrate();
+                    log.info("Migrated workspace {} to version {} ({} migrations applied)",
+                            workspaceId, result.targetSchemaVersion, result.migrationsExecuted);
+                }
+            });
+        };
+    }
+
+    /**
+     * Flyway for a workspace's dedicated database or schema, configured like the shared one,
+     * or {@code null} for a workspace on the shared schema.
+     */
+    static Flyway tenantFlyway(Flyway shared, DataSource sharedDataSource, TenancyProperties.Tenant tenant) {
+        if (tenant.getUrl() != null) {
+            return Flyway.configure()
+                    .configuration(shared.getConfiguration())
+                    .dataSource(tenant.getUrl(), tenant.getUsername(), tenant.getPassword())
+                    .load();
+        }
+        if (tenant.getSchema() != null) {
+            return Flyway.configure()
+                    .configuration(shared.getConfiguration())
+                    .dataSource(sharedDataSource)
+                    .schemas(tenant.getSchema())
+                    .defaultSchema(tenant.getSchema())
+                    .load();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,393 @@
+package com.ginkgooai.core.gatekeeper.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections on behalf of the workspace in {@link TenantContext}.
+ * <p>
+ * Every workspace has a fair semaphore sized by its weight, capping how much of the shared
+ * pool it can hold, so one workspace running bulk work cannot starve the others. Shared-pool
+ * checkouts then pass a second fair semaphore sized to the pool, which turns Hikari's
+ * unordered hand-off into FIFO order across workspaces. Workspaces can instead be routed to
+ * their own schema (switched on checkout) or their own database (a dedicated pool); those
+ * are migrated at startup by {@link TenantDataSourceConfig}.
+ * <p>
+ * Workspaces without configuration get their state on first use. Once more than
+ * {@code max-tracked-tenants} are known, the least recently used ones holding and awaiting no
+ * connection are evicted; a workspace in use is never evicted, so its quota always holds.
+ * <p>
+ * Acquisition wait time is recorded per workspace as {@code gatekeeper.datasource.acquire}.
+ * Only the first {@code max-tagged-tenants} dynamic workspaces get their own metric tags; the
+ * rest are recorded under {@code workspace=other} to bound tag cardinality.
+ */
+@Slf4j
+public class TenantRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final String SYSTEM = "system";
+
+    private static final String OTHER = "other";
+
+    /**
+     * Eviction trims the tracked workspaces to this fraction of the limit, so it does not run
+     * again for every new workspace.
+     */
+    private static final double EVICTION_TARGET = 0.9;
+
+    private final HikariDataSource shared;
+
+    private final Semaphore sharedGate;
+
+    private final TenancyProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, TenantState> states = new ConcurrentHashMap<>();
+
+    private final TenantMeters otherMeters;
+
+    private final AtomicInteger taggedTenants = new AtomicInteger();
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final long acquireTimeoutNanos;
+
+    public TenantRoutingDataSource(HikariDataSource shared, TenancyProperties properties, MeterRegistry meterRegistry) {
+        this.shared = shared;
+        this.sharedGate = new Semaphore(shared.getMaximumPoolSize(), true);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.acquireTimeoutNanos = properties.getAcquireTimeout().toNanos();
+        this.otherMeters = new TenantMeters(OTHER, quota(properties.getDefaultWeight()), false);
+
+        states.put(SYSTEM, pinned(SYSTEM, null, null, shared.getMaximumPoolSize()));
+        properties.getTenants().forEach((workspaceId, tenant) -> states.put(workspaceId, configured(workspaceId, tenant)));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String workspaceId = TenantContext.current();
+        TenantState state = checkOut(workspaceId == null ? SYSTEM : workspaceId);
+        boolean acquired = false;
+        try {
+            Connection connection = acquire(state);
+            acquired = true;
+            return connection;
+        } finally {
+            if (!acquired) {
+                state.holders.decrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Per-call credentials are not supported by the tenant routing data source");
+    }
+
+    @Override
+    public void close() {
+        states.values().forEach(state -> {
+            if (state.dedicated != null) {
+                state.dedicated.close();
+            }
+        });
+    }
+
+    /**
+     * Number of workspaces currently holding state, including the pinned ones.
+     */
+    int trackedTenants() {
+        return states.size();
+    }
+
+    private Connection acquire(TenantState state) throws SQLException {
+        long startTime = System.nanoTime();
+        long deadline = startTime + acquireTimeoutNanos;
+
+        if (!tryAcquire(state.permits, deadline)) {
+            state.meters.timeouts.increment();
+            throw new SQLTransientConnectionException("Workspace " + state.workspaceId + " exceeded its quota of "
+                    + state.quota + " connections for " + properties.getAcquireTimeout());
+        }
+        boolean gated = state.dedicated == null;
+        if (gated && !tryAcquire(sharedGate, deadline)) {
+            state.permits.release();
+            state.meters.timeouts.increment();
+            throw new SQLTransientConnectionException("No shared connection available for workspace " + state.workspaceId
+                    + " within " + properties.getAcquireTimeout());
+        }
+
+        Connection connection;
+        String previousSchema = null;
+        try {
+            connection = (gated ? shared : state.dedicated).getConnection();
+            if (state.schema != null) {
+                try {
+                    previousSchema = connection.getSchema();
+                    connection.setSchema(state.schema);
+                } catch (SQLException e) {
+                    connection.close();
+                    throw e;
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            release(state, gated);
+            throw e;
+        }
+
+        state.meters.acquireTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        state.meters.active.incrementAndGet();
+        return wrap(connection, state, gated, previousSchema);
+    }
+
+    /**
+     * Returns the state of a workspace with its holder count raised, creating it if needed.
+     * Holders are counted inside the map operation, which eviction also goes through, so a
+     * state is never dropped between being looked up and being used.
+     */
+    private TenantState checkOut(String workspaceId) {
+        if (!states.containsKey(workspaceId) && states.size() >= properties.getMaxTrackedTenants()) {
+            evictIdle();
+        }
+        TenantState state = states.compute(workspaceId, (id, current) -> {
+            TenantState checkedOut = current != null ? current : new TenantState(id, null, null,
+                    quota(properties.getDefaultWeight()), false, dynamicMeters(id, quota(properties.getDefaultWeight())));
+            checkedOut.holders.incrementAndGet();
+            return checkedOut;
+        });
+        state.lastUsed = System.currentTimeMillis();
+        return state;
+    }
+
+    /**
+     * Drops the least recently used workspaces that hold and await no connection.
+     */
+    private void evictIdle() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int excess = states.size() - (int) (properties.getMaxTrackedTenants() * EVICTION_TARGET);
+            List<TenantState> candidates = states.values().stream()
+                    .filter(state -> !state.pinned && state.holders.get() == 0)
+                    .sorted(Comparator.comparingLong(state -> state.lastUsed))
+                    .toList();
+            int evicted = 0;
+            for (TenantState candidate : candidates) {
+                if (evicted >= excess) {
+                    break;
+                }
+                AtomicBoolean removed = new AtomicBoolean();
+                states.computeIfPresent(candidate.workspaceId, (id, current) -> {
+                    if (current == candidate && current.holders.get() == 0) {
+                        removed.set(true);
+                        return null;
+                    }
+                    return current;
+                });
+                if (removed.get()) {
+                    candidate.meters.release();
+                    evicted++;
+                }
+            }
+            log.debug("Evicted {} idle workspaces from connection routing, {} tracked", evicted, states.size());
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private TenantState configured(String workspaceId, TenancyProperties.Tenant tenant) {
+        if (tenant.getUrl() != null) {
+            HikariDataSource dedicated = new HikariDataSource();
+            dedicated.setPoolName("tenant-" + workspaceId);
+            dedicated.setJdbcUrl(tenant.getUrl());
+            dedicated.setUsername(tenant.getUsername());
+            dedicated.setPassword(tenant.getPassword());
+            dedicated.setMaximumPoolSize(tenant.getMaxPoolSize());
+            log.info("Workspace {} routed to dedicated database pool of {}", workspaceId, tenant.getMaxPoolSize());
+            return pinned(workspaceId, dedicated, null, tenant.getMaxPoolSize());
+        }
+        if (tenant.getSchema() != null) {
+            log.info("Workspace {} routed to schema {}", workspaceId, tenant.getSchema());
+        }
+        return pinned(workspaceId, null, tenant.getSchema(), quota(tenant.getWeight()));
+    }
+
+    private TenantState pinned(String workspaceId, HikariDataSource dedicated, String schema, int quota) {
+        return new TenantState(workspaceId, dedicated, schema, quota, true, new TenantMeters(workspaceId, quota, false));
+    }
+
+    private TenantMeters dynamicMeters(String workspaceId, int quota) {
+        if (taggedTenants.incrementAndGet() <= properties.getMaxTaggedTenants()) {
+            return new TenantMeters(workspaceId, quota, true);
+        }
+        taggedTenants.decrementAndGet();
+        return otherMeters;
+    }
+
+    private int quota(double weight) {
+        int poolSize = shared.getMaximumPoolSize();
+        return (int) Math.max(1, Math.min(poolSize, Math.round(poolSize * weight * properties.getSharePerWeight())));
+    }
+
+    private void release(TenantState state, boolean gated) {
+        if (gated) {
+            sharedGate.release();
+        }
+        state.permits.release();
+    }
+
+    private static boolean tryAcquire(Semaphore semaphore, long deadline) throws SQLException {
+        try {
+            return semaphore.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    private Connection wrap(Connection target, TenantState state, boolean gated, String previousSchema) {
+        AtomicBoolean closed = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+            case "close" -> {
+                if (closed.compareAndSet(false, true)) {
+                    try {
+                        if (state.schema != null && previousSchema != null) {
+                            target.setSchema(previousSchema);
+                        }
+                    } finally {
+                        try {
+                            target.close();
+                        } finally {
+                            state.meters.active.decrementAndGet();
+                            release(state, gated);
+                            state.holders.decrementAndGet();
+                        }
+                    }
+                }
+                yield null;
+            }
+            case "isClosed" -> closed.get() || target.isClosed();
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> "Tenant[" + state.workspaceId + "] " + target;
+            default -> invoke(target, method, args);
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    private static Object invoke(Connection target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class TenantState {
+        private final String workspaceId;
+
+        private final HikariDataSource dedicated;
+
+        private final String schema;
+
+        private final int quota;
+
+        private final Semaphore permits;
+
+        /**
+         * Configured workspaces and the system bucket are never evicted.
+         */
+        private final boolean pinned;
+
+        private final TenantMeters meters;
+
+        /**
+         * Callers waiting for or holding a connection; only states at zero may be evicted.
+         */
+        private final AtomicInteger holders = new AtomicInteger();
+
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private TenantState(String workspaceId, HikariDataSource dedicated, String schema, int quota, boolean pinned,
+                            TenantMeters meters) {
+            this.workspaceId = workspaceId;
+            this.dedicated = dedicated;
+            this.schema = schema;
+            this.quota = quota;
+            this.permits = new Semaphore(quota, true);
+            this.pinned = pinned;
+            this.meters = meters;
+        }
+    }
+
+    /**
+     * Meters of one workspace tag; the "other" tag is shared by every untagged workspace.
+     */
+    private final class TenantMeters {
+        private final AtomicInteger active = new AtomicInteger();
+
+        private final Timer acquireTimer;
+
+        private final Counter timeouts;
+
+        private final List<Meter> meters;
+
+        private final boolean counted;
+
+        private TenantMeters(String tag, int quota, boolean counted) {
+            this.counted = counted;
+            this.acquireTimer = Timer.builder("gatekeeper.datasource.acquire")
+                    .description("Time to obtain a connection, including quota and fair-queue wait")
+                    .tag("workspace", tag)
+                    .register(meterRegistry);
+            this.timeouts = Counter.builder("gatekeeper.datasource.timeouts")
+                    .description("Connection requests that gave up waiting")
+                    .tag("workspace", tag)
+                    .register(meterRegistry);
+            Gauge activeGauge = Gauge.builder("gatekeeper.datasource.active", active, AtomicInteger::get)
+                    .description("Connections currently held")
+                    .tag("workspace", tag)
+                    .register(meterRegistry);
+            Gauge quotaGauge = Gauge.builder("gatekeeper.datasource.quota", () -> quota)
+                    .description("Maximum connections one workspace may hold at once")
+                    .tag("workspace", tag)
+                    .register(meterRegistry);
+            this.meters = List.of(acquireTimer, timeouts, activeGauge, quotaGauge);
+        }
+
+        /**
+         * Unregisters the meters of an evicted workspace and frees its tag slot.
+         */
+        private void release() {
+            if (counted) {
+                meters.forEach(meterRegistry::remove);
+                taggedTenants.decrementAndGet();
+            }
+        }
+    }
+}
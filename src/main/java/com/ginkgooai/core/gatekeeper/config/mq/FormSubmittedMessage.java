@@ -0,0 +1,22 @@
+package com.ginkgooai.core.gatekeeper.config.mq;
+
+import com.ginkgooai.core.common.queue.QueueMessage;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class FormSubmittedMessage extends QueueMessage {
+
+    public static final String QUEUE_NAME = "gatekeeper:form-submitted";
+
+    private String submissionId;
+
+    private String workspaceId;
+
+    private String formId;
+
+    private Integer formVersion;
+
+    private String submittedBy;
+}
@@ -19,8 +19,16 @@ public class RedissonMQ implements QueueInterface {
 
     @Override
     public <T extends QueueMessage> void send(String queueName, T message) {
+        send(queueName, message, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Sends with a caller-supplied message ID, so a retried operation produces the same ID
+     * and consumers can drop the duplicate.
+     */
+    public <T extends QueueMessage> void send(String queueName, T message, String msgId) {
         RQueue<T> queue = redissonClient.getQueue(queueName);
-        message.setMsgId(UUID.randomUUID().toString());
+        message.setMsgId(msgId);
         message.setTimestamp(System.currentTimeMillis());
         queue.offer(message);
     }
@@ -1,6 +1,7 @@
 package com.ginkgooai.core.gatekeeper.config.mvc;
 
 import com.ginkgooai.core.common.interceptor.ContextsInterceptor;
+import com.ginkgooai.core.gatekeeper.config.datasource.TenantContextInterceptor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -16,6 +17,12 @@ public class WebMvcInterceptor implements WebMvcConfigurer {
                         "/api/project/swagger-ui/**",
                         "/webjars/**"
                 );
+        registry.addInterceptor(new TenantContextInterceptor())
+                .excludePathPatterns(
+                        "/api/project/v3/api-docs/**",
+                        "/api/project/swagger-ui/**",
+                        "/webjars/**"
+                );
     }
 
 }
\ No newline at end of file
@@ -35,7 +35,8 @@ public class SecurityConfig {
                                 "/webjars/**"
                         ).permitAll()
                         .requestMatchers(
-                                "/health"
+                                "/health",
+                                "/health/**"
                         ).permitAll()
                         .requestMatchers(
                                 "/workspaces/current",
@@ -0,0 +1,116 @@
+package com.ginkgooai.core.gatekeeper.controller;
+
+import com.ginkgooai.core.common.utils.ContextUtils;
+import com.ginkgooai.core.gatekeeper.dto.bulk.BulkImportResult;
+import com.ginkgooai.core.gatekeeper.service.FormBulkService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/gatekeeper/v1/forms")
+@Tag(name = "Form Bulk", description = "Streaming NDJSON import/export of forms and submissions")
+public class FormBulkController {
+
+    private static final String GZIP = "gzip";
+
+    private final FormBulkService formBulkService;
+
+    private final long exportTimeoutMillis;
+
+    /**
+     * Exports hold a thread for up to the export timeout, so they get their own pool instead of
+     * the shared MVC async executor. It has no queue: an export past the limit is rejected with
+     * 503 right away rather than waiting while its timeout runs.
+     */
+    private final ThreadPoolTaskExecutor exportExecutor;
+
+    public FormBulkController(FormBulkService formBulkService,
+                              @Value("${gatekeeper.bulk.export-timeout:30m}") Duration exportTimeout,
+                              @Value("${gatekeeper.bulk.export-concurrency:4}") int exportConcurrency) {
+        this.formBulkService = formBulkService;
+        this.exportTimeoutMillis = exportTimeout.toMillis();
+        this.exportExecutor = new ThreadPoolTaskExecutor();
+        this.exportExecutor.setCorePoolSize(exportConcurrency);
+        this.exportExecutor.setMaxPoolSize(exportConcurrency);
+        this.exportExecutor.setQueueCapacity(0);
+        this.exportExecutor.setThreadNamePrefix("bulk-export-");
+        this.exportExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        exportExecutor.shutdown();
+    }
+
+    @PostMapping(value = "/bulk/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Import form definitions",
+            description = "Upserts one form definition per NDJSON line in batches. Send Content-Encoding: gzip for compressed bodies.")
+    public ResponseEntity<BulkImportResult> importDefinitions(HttpServletRequest request) throws IOException {
+        InputStream input = request.getInputStream();
+        if (GZIP.equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            input = new GZIPInputStream(input);
+        }
+        return ResponseEntity.ok(formBulkService.importDefinitions(input, ContextUtils.getWorkspaceId(), ContextUtils.getUserId()));
+    }
+
+    @GetMapping(value = "/bulk/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export form definitions", description = "Streams every form definition of the workspace as NDJSON")
+    public WebAsyncTask<Void> exportDefinitions(@RequestParam(defaultValue = "false") boolean gzip,
+                                                HttpServletResponse response) {
+        String workspaceId = ContextUtils.getWorkspaceId();
+        return streaming(gzip, response, output -> formBulkService.exportDefinitions(workspaceId, output));
+    }
+
+    @GetMapping(value = "/{formId}/submissions/bulk/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export form submissions", description = "Streams every submission of the form as NDJSON")
+    public WebAsyncTask<Void> exportSubmissions(@PathVariable String formId,
+                                                @RequestParam(defaultValue = "false") boolean gzip,
+                                                HttpServletResponse response) {
+        String workspaceId = ContextUtils.getWorkspaceId();
+        return streaming(gzip, response, output -> formBulkService.exportSubmissions(workspaceId, formId, output));
+    }
+
+    /**
+     * Streams the body from an async task on the export pool whose timeout applies to exports
+     * only, leaving the default async timeout in place for every other endpoint.
+     */
+    private WebAsyncTask<Void> streaming(boolean gzip, HttpServletResponse response, StreamingResponseBody body) {
+        return new WebAsyncTask<>(exportTimeoutMillis, exportExecutor, () -> {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            OutputStream output = response.getOutputStream();
+            if (gzip) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+                GZIPOutputStream gzipOutput = new GZIPOutputStream(output, 64 * 1024);
+                body.writeTo(gzipOutput);
+                gzipOutput.finish();
+            } else {
+                body.writeTo(output);
+            }
+            output.flush();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package com.ginkgooai.core.gatekeeper.controller;
+
+import com.ginkgooai.core.common.utils.ContextUtils;
+import com.ginkgooai.core.gatekeeper.dto.CursorPage;
+import com.ginkgooai.core.gatekeeper.dto.form.CompiledForm;
+import com.ginkgooai.core.gatekeeper.dto.form.FormSummary;
+import com.ginkgooai.core.gatekeeper.service.FormQueryService;
+import com.ginkgooai.core.gatekeeper.service.cache.CompiledFormService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/gatekeeper/v1/forms")
+@RequiredArgsConstructor
+@Tag(name = "Form", description = "Form definition endpoints")
+public class FormController {
+
+    private final CompiledFormService compiledFormService;
+
+    private final FormQueryService formQueryService;
+
+    @GetMapping
+    @Operation(summary = "List forms", description = "Keyset-paginated form summaries, most recently updated first")
+    public ResponseEntity<CursorPage<FormSummary>> listForms(
+            @Parameter(description = "Case-insensitive substring of the form name") @RequestParam(required = false) String name,
+            @Parameter(description = "Form status, e.g. DRAFT or ACTIVE") @RequestParam(required = false) String status,
+            @Parameter(description = "Opaque cursor from the previous page's nextCursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, 1-100") @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(formQueryService.list(ContextUtils.getWorkspaceId(), name, status, cursor, size));
+    }
+
+    @GetMapping("/{formId}")
+    @Operation(summary = "Get active form", description = "Returns the compiled snapshot of the active version of a form")
+    public ResponseEntity<CompiledForm> getActiveForm(@PathVariable String formId) {
+        return compiledFormService.get(ContextUtils.getWorkspaceId(), formId)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Active form not found: " + formId));
+    }
+
+    @PostMapping("/{formId}/activate")
+    @Operation(summary = "Activate form", description = "Activates a new version of the form and publishes it to all replicas")
+    public ResponseEntity<CompiledForm> activate(@PathVariable String formId) {
+        return ResponseEntity.ok(compiledFormService.activate(ContextUtils.getWorkspaceId(), formId, ContextUtils.getUserId()));
+    }
+}
@@ -0,0 +1,51 @@
+package com.ginkgooai.core.gatekeeper.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ginkgooai.core.common.utils.ContextUtils;
+import com.ginkgooai.core.gatekeeper.dto.submission.FormSubmissionResponse;
+import com.ginkgooai.core.gatekeeper.idempotency.IdempotencyService;
+import com.ginkgooai.core.gatekeeper.service.FormSubmissionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/gatekeeper/v1/forms")
+@RequiredArgsConstructor
+@Tag(name = "Form Submission", description = "Form submission endpoints")
+public class FormSubmissionController {
+
+    private final FormSubmissionService formSubmissionService;
+
+    private final IdempotencyService idempotencyService;
+
+    @PostMapping("/{formId}/submissions")
+    @Operation(summary = "Submit a form",
+            description = "Retries carrying the same Idempotency-Key within the dedupe window replay the original response")
+    public ResponseEntity<FormSubmissionResponse> submit(
+            @PathVariable String formId,
+            @Parameter(description = "Client-generated key identifying this submission attempt")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody JsonNode data) {
+        String workspaceId = ContextUtils.getWorkspaceId();
+        String userId = ContextUtils.getUserId();
+        String scope = workspaceId + ":" + userId;
+        String msgId = idempotencyKey == null ? null : IdempotencyService.messageId(scope, idempotencyKey);
+        String submissionId = idempotencyKey == null ? null : IdempotencyService.resourceId(scope, idempotencyKey);
+        String fingerprint = DigestUtils.sha256Hex(formId + ":" + data);
+
+        return idempotencyService.execute(scope, idempotencyKey, fingerprint, FormSubmissionResponse.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(formSubmissionService.submit(workspaceId, userId, formId, data, submissionId, msgId)));
+    }
+}
@@ -0,0 +1,22 @@
+package com.ginkgooai.core.gatekeeper.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code nextCursor} back as {@code cursor}
+ * to fetch the following page; it is {@code null} on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+
+    private String nextCursor;
+
+    private boolean hasMore;
+}
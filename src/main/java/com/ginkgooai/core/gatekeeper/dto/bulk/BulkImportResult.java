@@ -0,0 +1,26 @@
+package com.ginkgooai.core.gatekeeper.dto.bulk;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkImportResult {
+    private long lines;
+
+    private long imported;
+
+    private long failed;
+
+    private long batches;
+
+    private long elapsedMillis;
+
+    private double recordsPerSecond;
+
+    /**
+     * First errors encountered, capped so a bad file cannot blow up the response.
+     */
+    private List<String> errors = new ArrayList<>();
+}
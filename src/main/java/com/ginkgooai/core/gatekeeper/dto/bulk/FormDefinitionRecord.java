@@ -0,0 +1,22 @@
+package com.ginkgooai.core.gatekeeper.dto.bulk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+/**
+ * One line of a form definition NDJSON import.
+ */
+@Data
+public class FormDefinitionRecord {
+    private String id;
+
+    private String name;
+
+    private String description;
+
+    private String status;
+
+    private Integer version;
+
+    private JsonNode schema;
+}
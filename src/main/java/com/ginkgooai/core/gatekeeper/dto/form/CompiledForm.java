@@ -0,0 +1,30 @@
+package com.ginkgooai.core.gatekeeper.dto.form;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Published, render-ready snapshot of the active version of a form.
+ */
+@Data
+public class CompiledForm {
+    private String id;
+
+    private String workspaceId;
+
+    private String name;
+
+    private Integer version;
+
+    private JsonNode schema;
+
+    /**
+     * Field definitions indexed by key, so validation does not have to walk the schema.
+     */
+    private Map<String, JsonNode> fields = new LinkedHashMap<>();
+
+    private long compiledAt;
+}
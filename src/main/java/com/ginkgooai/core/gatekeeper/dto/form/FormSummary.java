@@ -0,0 +1,25 @@
+package com.ginkgooai.core.gatekeeper.dto.form;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Listing projection of a form definition; deliberately excludes the schema.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FormSummary {
+    private String id;
+
+    private String name;
+
+    private String status;
+
+    private Integer version;
+
+    private LocalDateTime updatedAt;
+}
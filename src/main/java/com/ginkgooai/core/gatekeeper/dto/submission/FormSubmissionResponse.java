@@ -0,0 +1,20 @@
+package com.ginkgooai.core.gatekeeper.dto.submission;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FormSubmissionResponse {
+    private String id;
+
+    private String formId;
+
+    private Integer formVersion;
+
+    private LocalDateTime submittedAt;
+}
@@ -1,6 +1,8 @@
 package com.ginkgooai.core.gatekeeper.filter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,6 +19,7 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 @Component
@@ -37,6 +40,13 @@ public class GlobalLoggingFilter extends OncePerRequestFilter {
             "/webjars"
     );
 
+    /**
+     * Bulk import/export bodies can be arbitrarily large; they are logged without being cached.
+     */
+    private static final String STREAMING_PATH_SEGMENT = "/bulk/";
+
+    private static final String NDJSON_CONTENT_TYPE = "application/x-ndjson";
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Override
@@ -49,6 +59,39 @@ public class GlobalLoggingFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
+        if (isStreaming(request)) {
+            long startTime = System.currentTimeMillis();
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // The body is still being written on another thread; log once it is done.
+                // Timeouts and errors are always followed by onComplete.
+                AtomicReference<String> failure = new AtomicReference<>();
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        logStreamingCall(request, response, startTime, failure.get());
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        failure.compareAndSet(null, "timed out");
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        failure.compareAndSet(null, String.valueOf(event.getThrowable()));
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                logStreamingCall(request, response, startTime, null);
+            }
+            return;
+        }
+
         ContentCachingRequestWrapper requestWrapper = request instanceof ContentCachingRequestWrapper ?
                 (ContentCachingRequestWrapper) request : new ContentCachingRequestWrapper(request);
         ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
@@ -62,6 +105,24 @@ public class GlobalLoggingFilter extends OncePerRequestFilter {
         }
     }
 
+    private void logStreamingCall(HttpServletRequest request, HttpServletResponse response, long startTime, String failure) {
+        log.info("API Call - {} {} - Status: {} - Time: {}ms (streaming, body not logged){}",
+                request.getMethod(),
+                request.getRequestURI(),
+                response.getStatus(),
+                System.currentTimeMillis() - startTime,
+                failure == null ? "" : " - " + failure
+        );
+    }
+
+    private boolean isStreaming(HttpServletRequest request) {
+        if (request.getRequestURI().contains(STREAMING_PATH_SEGMENT)) {
+            return true;
+        }
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith(NDJSON_CONTENT_TYPE);
+    }
+
     private void logApiCall(ContentCachingRequestWrapper request, ContentCachingResponseWrapper response, long timeElapsed) {
         try {
             String requestBody = getRequestBody(request);
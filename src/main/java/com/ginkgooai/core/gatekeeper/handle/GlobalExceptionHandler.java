@@ -2,7 +2,11 @@ package com.ginkgooai.core.gatekeeper.handle;
 
 import com.ginkgooai.core.common.exception.BaseRuntimeException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
@@ -16,4 +20,16 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         log.error("BaseRuntimeException: ", ex);
         return ex.toProblemDetail();
     }
+
+    /**
+     * A bounded executor (such as the bulk export pool) is full.
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ProblemDetail> handleTaskRejected(TaskRejectedException ex) {
+        log.warn("Rejected task: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many concurrent requests of this kind, try again later"));
+    }
 }
\ No newline at end of file
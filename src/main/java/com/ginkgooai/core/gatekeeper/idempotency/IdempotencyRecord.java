@@ -0,0 +1,30 @@
+package com.ginkgooai.core.gatekeeper.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What is stored in Redis under an idempotency key.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    public enum State {
+        IN_PROGRESS,
+        COMPLETED
+    }
+
+    private State state;
+
+    /**
+     * Hash of the original request, used to reject a key reused for a different payload.
+     */
+    private String fingerprint;
+
+    private int status;
+
+    private String body;
+}
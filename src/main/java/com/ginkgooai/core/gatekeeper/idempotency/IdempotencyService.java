@@ -0,0 +1,197 @@
+package com.ginkgooai.core.gatekeeper.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates retried requests carrying an {@code Idempotency-Key}.
+ * <p>
+ * The key is claimed in Redis with {@code SET NX} and a short lease before the action runs, and
+ * the response is stored under it for the full TTL afterwards so retries get the original
+ * response replayed. If a node dies mid-request the lease lets the key be retried soon after,
+ * so actions should also persist idempotently, e.g. under {@link #resourceId}.
+ * A local {@link LocalBloomFilter} decides the lookup order: a key this node has never seen
+ * goes straight to the claim (one round trip), only possible duplicates read the stored
+ * record first. The filter is per node and therefore never authoritative — the Redis claim is.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String KEY_PREFIX = "gatekeeper:idempotency:";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final RedissonClient redissonClient;
+
+    /**
+     * Own mapper with plain ISO dates: the API mapper writes a trailing 'Z' it cannot read back.
+     */
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private final MeterRegistry meterRegistry;
+
+    private final Duration ttl;
+
+    private final Duration claimLease;
+
+    private final LocalBloomFilter seenKeys;
+
+    public IdempotencyService(RedissonClient redissonClient,
+                              MeterRegistry meterRegistry,
+                              @Value("${gatekeeper.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${gatekeeper.idempotency.claim-lease:60s}") Duration claimLease,
+                              @Value("${gatekeeper.idempotency.bloom-expected-keys:1000000}") long bloomExpectedKeys,
+                              @Value("${gatekeeper.idempotency.bloom-false-positive-rate:0.01}") double bloomFalsePositiveRate) {
+        this.redissonClient = redissonClient;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.claimLease = claimLease;
+        this.seenKeys = new LocalBloomFilter(bloomExpectedKeys, bloomFalsePositiveRate, ttl.toMillis());
+    }
+
+    /**
+     * Derives a stable message ID from an idempotency key so queue consumers can deduplicate too.
+     */
+    public static String messageId(String scope, String key) {
+        return scope + ":" + key;
+    }
+
+    /**
+     * Derives a stable resource ID from an idempotency key, so a retry that reaches the database
+     * again finds the row the first attempt wrote.
+     */
+    public static String resourceId(String scope, String key) {
+        return UUID.nameUUIDFromBytes(messageId(scope, key).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * Runs {@code action} at most once per {@code scope}/{@code key} within the TTL.
+     * Without a key the action simply runs.
+     */
+    public <T> ResponseEntity<T> execute(String scope, String key, String fingerprint, Class<T> bodyType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (!StringUtils.hasText(key)) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String redisKey = KEY_PREFIX + messageId(scope, key);
+        RBucket<String> bucket = redissonClient.getBucket(redisKey, StringCodec.INSTANCE);
+
+        if (seenKeys.mightContain(redisKey)) {
+            IdempotencyRecord existing = read(bucket.get());
+            if (existing != null) {
+                return replay(existing, fingerprint, bodyType);
+            }
+        } else {
+            count("prefilter_skip");
+        }
+
+        IdempotencyRecord claim = new IdempotencyRecord(IdempotencyRecord.State.IN_PROGRESS, fingerprint, 0, null);
+        if (!bucket.setIfAbsent(write(claim), claimLease)) {
+            seenKeys.put(redisKey);
+            return replay(read(bucket.get()), fingerprint, bodyType);
+        }
+        seenKeys.put(redisKey);
+        count("first");
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            // Release the claim so the client can retry after a failure
+            bucket.delete();
+            throw e;
+        }
+
+        if (response.getStatusCode().is5xxServerError()) {
+            bucket.delete();
+        } else {
+            IdempotencyRecord completed = new IdempotencyRecord(IdempotencyRecord.State.COMPLETED, fingerprint,
+                    response.getStatusCode().value(), write(response.getBody()));
+            bucket.set(write(completed), ttl.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotencyRecord existing, String fingerprint, Class<T> bodyType) {
+        if (existing == null) {
+            // Claim expired or was released between our two reads
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Request with this " + HEADER + " is being retried, try again");
+        }
+        if (fingerprint != null && !fingerprint.equals(existing.getFingerprint())) {
+            count("mismatch");
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " was already used for a different request");
+        }
+        if (existing.getState() == IdempotencyRecord.State.IN_PROGRESS) {
+            count("in_progress");
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Request with this " + HEADER + " is still being processed");
+        }
+        count("replayed");
+        T body;
+        try {
+            body = existing.getBody() == null ? null : objectMapper.readValue(existing.getBody(), bodyType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read stored idempotent response", e);
+        }
+        return ResponseEntity.status(existing.getStatus())
+                .header(REPLAYED_HEADER, "true")
+                .body(body);
+    }
+
+    private IdempotencyRecord read(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(value, IdempotencyRecord.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable idempotency record", e);
+            return null;
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize idempotency record", e);
+        }
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("gatekeeper.idempotency.requests", "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,117 @@
+package com.ginkgooai.core.gatekeeper.idempotency;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Small in-process Bloom filter used as a prefilter in front of Redis.
+ * <p>
+ * It keeps two generations: inserts go to the current one, lookups check both, and the
+ * current generation is retired once it has taken {@code expectedInsertions} keys or is
+ * older than {@code maxAgeMillis}. This keeps the false-positive rate bounded without
+ * ever forgetting a key younger than one generation.
+ */
+public class LocalBloomFilter {
+
+    private final int bitCount;
+
+    private final int hashCount;
+
+    private final long expectedInsertions;
+
+    private final long maxAgeMillis;
+
+    private volatile Generation current;
+
+    private volatile Generation previous;
+
+    public LocalBloomFilter(long expectedInsertions, double falsePositiveRate, long maxAgeMillis) {
+        double bits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63L, Math.max(64L, (long) bits));
+        this.hashCount = Math.max(1, (int) Math.round(bitCount / (double) expectedInsertions * Math.log(2)));
+        this.expectedInsertions = expectedInsertions;
+        this.maxAgeMillis = maxAgeMillis;
+        this.current = new Generation(bitCount);
+        this.previous = new Generation(bitCount);
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        return current.mightContain(hash) || previous.mightContain(hash);
+    }
+
+    public void put(String key) {
+        rotateIfNeeded();
+        current.put(hash(key));
+    }
+
+    private void rotateIfNeeded() {
+        Generation generation = current;
+        if (generation.insertions.get() < expectedInsertions
+                && System.currentTimeMillis() - generation.createdAt < maxAgeMillis) {
+            return;
+        }
+        synchronized (this) {
+            if (current == generation) {
+                previous = generation;
+                current = new Generation(bitCount);
+            }
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a; the two halves feed double hashing in {@link Generation}.
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private final class Generation {
+        private final AtomicLongArray words;
+
+        private final AtomicLong insertions = new AtomicLong();
+
+        private final long createdAt = System.currentTimeMillis();
+
+        private Generation(int bits) {
+            this.words = new AtomicLongArray((bits + 63) >>> 6);
+        }
+
+        private boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                int bit = index(h1 + i * h2);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void put(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                int bit = index(h1 + i * h2);
+                long mask = 1L << bit;
+                int word = bit >>> 6;
+                long value;
+                do {
+                    value = words.get(word);
+                } while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask));
+            }
+            insertions.incrementAndGet();
+        }
+
+        private int index(int combined) {
+            return (combined & Integer.MAX_VALUE) % bitCount;
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package com.ginkgooai.core.gatekeeper.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ginkgooai.core.gatekeeper.audit.AuditEvent;
+import com.ginkgooai.core.gatekeeper.config.datasource.TenantContext;
+import com.ginkgooai.core.gatekeeper.dto.bulk.BulkImportResult;
+import com.ginkgooai.core.gatekeeper.dto.bulk.FormDefinitionRecord;
+import com.ginkgooai.core.gatekeeper.service.cache.CompiledFormService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Streaming NDJSON import/export of form definitions and submissions.
+ * <p>
+ * Import reads one line at a time and flushes fixed-size JDBC batches, each in its own
+ * transaction, so memory and transaction length are bounded by the batch size and the line
+ * length cap rather than the file size. Lines over the cap are skipped and reported without
+ * being buffered. Export runs inside a read-only transaction with a fetch size set, which makes
+ * the Postgres driver use a server-side cursor instead of materialising the whole result.
+ */
+@Slf4j
+@Service
+public class FormBulkService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final int MAX_ID_LENGTH = 36;
+
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private static final int MAX_STATUS_LENGTH = 32;
+
+    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
+    private static final String UPSERT_DEFINITION_SQL = """
+            INSERT INTO form_definition (id, workspace_id, name, description, status, version, schema,
+                                         created_by, updated_by, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?::jsonb, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+            ON CONFLICT (id) DO UPDATE SET name        = EXCLUDED.name,
+                                           description = EXCLUDED.description,
+                                           status      = EXCLUDED.status,
+                                           version     = EXCLUDED.version,
+                                           schema      = EXCLUDED.schema,
+                                           updated_by  = EXCLUDED.updated_by,
+                                           updated_at  = CURRENT_TIMESTAMP
+            WHERE form_definition.workspace_id = EXCLUDED.workspace_id
+            """;
+
+    private static final String EXPORT_DEFINITIONS_SQL = """
+            SELECT id, name, description, status, version, schema::text AS schema, created_at, updated_at
+            FROM form_definition
+            WHERE workspace_id = ?
+            ORDER BY id
+            """;
+
+    private static final String EXPORT_SUBMISSIONS_SQL = """
+            SELECT id, form_id, form_version, data::text AS data, submitted_by, submitted_at
+            FROM form_submission
+            WHERE workspace_id = ? AND form_id = ?
+            ORDER BY submitted_at, id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate writeTransaction;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final CompiledFormService compiledFormService;
+
+    private final int batchSize;
+
+    private final int progressInterval;
+
+    private final int maxLineBytes;
+
+    public FormBulkService(DataSource dataSource,
+                           PlatformTransactionManager transactionManager,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           ApplicationEventPublisher eventPublisher,
+                           CompiledFormService compiledFormService,
+                           @Value("${gatekeeper.bulk.batch-size:500}") int batchSize,
+                           @Value("${gatekeeper.bulk.fetch-size:1000}") int fetchSize,
+                           @Value("${gatekeeper.bulk.progress-interval:10000}") int progressInterval,
+                           @Value("${gatekeeper.bulk.max-line-bytes:1048576}") int maxLineBytes) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+        this.compiledFormService = compiledFormService;
+        this.batchSize = batchSize;
+        this.progressInterval = progressInterval;
+        this.maxLineBytes = maxLineBytes;
+    }
+
+    public BulkImportResult importDefinitions(InputStream input, String workspaceId, String userId) throws IOException {
+        BulkImportResult result = new BulkImportResult();
+        Counter counter = recordCounter("import", "form_definition");
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        long startTime = System.currentTimeMillis();
+
+        LineReader reader = new LineReader(input, maxLineBytes);
+        while (reader.next()) {
+            result.setLines(result.getLines() + 1);
+            if (reader.overflowed()) {
+                recordError(result, result.getLines(), "line exceeds " + maxLineBytes + " bytes");
+                continue;
+            }
+            String line = reader.line();
+            if (!StringUtils.hasText(line)) {
+                continue;
+            }
+            try {
+                batch.add(toDefinitionRow(result.getLines(), objectMapper.readValue(line, FormDefinitionRecord.class),
+                        workspaceId, userId));
+            } catch (Exception e) {
+                recordError(result, result.getLines(), e.getMessage());
+                continue;
+            }
+            if (batch.size() >= batchSize) {
+                flushDefinitions(batch, workspaceId, userId, result, counter);
+                logProgress("import", result.getImported(), startTime);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushDefinitions(batch, workspaceId, userId, result, counter);
+        }
+
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        result.setRecordsPerSecond(rate(result.getImported(), startTime));
+        log.info("Form definition import finished - workspace: {}, imported: {}, failed: {}, time: {}ms, rate: {}/s",
+                workspaceId, result.getImported(), result.getFailed(), result.getElapsedMillis(),
+                String.format("%.1f", result.getRecordsPerSecond()));
+        // Summary next to the per-record IMPORT events written as each batch commits
+        eventPublisher.publishEvent(AuditEvent.of(workspaceId, userId, "IMPORT", "form_definition", null,
+                Map.of("imported", result.getImported(), "failed", result.getFailed())));
+        return result;
+    }
+
+    public void exportDefinitions(String workspaceId, OutputStream output) throws IOException {
+        exportRows("form_definition", EXPORT_DEFINITIONS_SQL, workspaceId, output, (rs, gen) -> {
+            gen.writeStringField("id", rs.getString("id"));
+            gen.writeStringField("name", rs.getString("name"));
+            gen.writeStringField("description", rs.getString("description"));
+            gen.writeStringField("status", rs.getString("status"));
+            gen.writeNumberField("version", rs.getInt("version"));
+            gen.writeFieldName("schema");
+            gen.writeRawValue(rs.getString("schema"));
+            writeTimestamp(gen, "createdAt", rs.getTimestamp("created_at"));
+            writeTimestamp(gen, "updatedAt", rs.getTimestamp("updated_at"));
+        }, workspaceId);
+    }
+
+    public void exportSubmissions(String workspaceId, String formId, OutputStream output) throws IOException {
+        exportRows("form_submission", EXPORT_SUBMISSIONS_SQL, workspaceId, output, (rs, gen) -> {
+            gen.writeStringField("id", rs.getString("id"));
+            gen.writeStringField("formId", rs.getString("form_id"));
+            gen.writeNumberField("formVersion", rs.getInt("form_version"));
+            gen.writeFieldName("data");
+            gen.writeRawValue(rs.getString("data"));
+            gen.writeStringField("submittedBy", rs.getString("submitted_by"));
+            writeTimestamp(gen, "submittedAt", rs.getTimestamp("submitted_at"));
+        }, workspaceId, formId);
+    }
+
+    private void exportRows(String table, String sql, String workspaceId, OutputStream output, RowWriter rowWriter,
+                            Object... args) throws IOException {
+        Counter counter = recordCounter("export", table);
+        long startTime = System.currentTimeMillis();
+        long[] rows = {0};
+
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(output)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            RowCallbackHandler handler = rs -> {
+                try {
+                    gen.writeStartObject();
+                    rowWriter.write(rs, gen);
+                    gen.writeEndObject();
+                    gen.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                counter.increment();
+                if (++rows[0] % progressInterval == 0) {
+                    logProgress("export " + table, rows[0], startTime);
+                }
+            };
+            // Exports stream on an async thread; charge the connection to the workspace explicitly
+            String previousTenant = TenantContext.current();
+            TenantContext.set(workspaceId);
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(sql, handler, args));
+            } finally {
+                TenantContext.set(previousTenant);
+            }
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor has already been released with the transaction
+            log.warn("Export of {} aborted after {} rows: {}", table, rows[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        log.info("Export of {} finished - rows: {}, time: {}ms, rate: {}/s", table, rows[0],
+                System.currentTimeMillis() - startTime, String.format("%.1f", rate(rows[0], startTime)));
+    }
+
+    /**
+     * Writes a batch in one transaction. If the batch fails as a whole, each row is retried in
+     * its own transaction so only the offending lines are reported and everything else lands.
+     */
+    private void flushDefinitions(List<PendingRow> batch, String workspaceId, String userId, BulkImportResult result,
+                                  Counter counter) {
+        try {
+            List<PendingRow> rejected = writeTransaction.execute(status -> writeDefinitions(batch, workspaceId));
+            recordWritten(batch, rejected, workspaceId, userId, result, counter);
+        } catch (Exception e) {
+            log.warn("Import batch of {} records ending at line {} failed, retrying row by row",
+                    batch.size(), batch.getLast().line(), e);
+            for (PendingRow row : batch) {
+                try {
+                    List<PendingRow> rejected = writeTransaction.execute(status -> writeDefinitions(List.of(row), workspaceId));
+                    recordWritten(List.of(row), rejected, workspaceId, userId, result, counter);
+                } catch (Exception rowError) {
+                    recordError(result, row.line(), NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        } finally {
+            result.setBatches(result.getBatches() + 1);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Upserts the rows and returns those that were not written because their ID already belongs
+     * to another workspace.
+     */
+    private List<PendingRow> writeDefinitions(List<PendingRow> rows, String workspaceId) {
+        Set<String> foreignIds = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM form_definition WHERE workspace_id <> ? AND id IN ("
+                        + String.join(", ", Collections.nCopies(rows.size(), "?")) + ")",
+                String.class,
+                Stream.concat(Stream.of(workspaceId), rows.stream().map(PendingRow::id)).toArray()));
+
+        List<PendingRow> rejected = new ArrayList<>();
+        List<PendingRow> accepted = new ArrayList<>(rows.size());
+        for (PendingRow row : rows) {
+            if (foreignIds.contains(row.id())) {
+                rejected.add(row);
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return rejected;
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(UPSERT_DEFINITION_SQL, accepted.stream().map(PendingRow::args).toList());
+        for (int i = 0; i < counts.length; i++) {
+            // Drivers may report SUCCESS_NO_INFO (-2) for rewritten batches; 0 means the
+            // conflict guard skipped a row claimed by another workspace since the check above
+            if (counts[i] == 0) {
+                rejected.add(accepted.get(i));
+            }
+        }
+        return rejected;
+    }
+
+    private void recordWritten(List<PendingRow> rows, List<PendingRow> rejected, String workspaceId, String userId,
+                               BulkImportResult result, Counter counter) {
+        for (PendingRow row : rejected) {
+            recordError(result, row.line(), "id " + row.id() + " already exists in another workspace");
+        }
+        List<PendingRow> written = rows.stream().filter(row -> !rejected.contains(row)).toList();
+        result.setImported(result.getImported() + written.size());
+        counter.increment(written.size());
+        for (PendingRow row : written) {
+            eventPublisher.publishEvent(AuditEvent.of(workspaceId, userId, "IMPORT", "form_definition", row.id(),
+                    Map.of("line", row.line(), "batch", result.getBatches() + 1)));
+        }
+        // Imports can change status and schema, so published snapshots of these forms are stale
+        try {
+            compiledFormService.evict(workspaceId, written.stream().map(PendingRow::id).toList());
+        } catch (Exception e) {
+            log.warn("Failed to evict cached snapshots of {} imported forms", written.size(), e);
+        }
+    }
+
+    private PendingRow toDefinitionRow(long line, FormDefinitionRecord record, String workspaceId, String userId)
+            throws IOException {
+        if (!StringUtils.hasText(record.getName())) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (record.getSchema() == null || record.getSchema().isNull()) {
+            throw new IllegalArgumentException("schema is required");
+        }
+        checkLength("id", record.getId(), MAX_ID_LENGTH);
+        checkLength("name", record.getName(), MAX_NAME_LENGTH);
+        checkLength("status", record.getStatus(), MAX_STATUS_LENGTH);
+
+        String id = StringUtils.hasText(record.getId()) ? record.getId() : UUID.randomUUID().toString();
+        return new PendingRow(line, id, new Object[]{
+                id,
+                workspaceId,
+                record.getName(),
+                record.getDescription(),
+                StringUtils.hasText(record.getStatus()) ? record.getStatus() : "DRAFT",
+                record.getVersion() != null ? record.getVersion() : 1,
+                objectMapper.writeValueAsString(record.getSchema()),
+                userId,
+                userId
+        });
+    }
+
+    private static void checkLength(String field, String value, int maxLength) {
+        if (value != null && value.length() > maxLength) {
+            throw new IllegalArgumentException(field + " must be at most " + maxLength + " characters");
+        }
+    }
+
+    private void recordError(BulkImportResult result, long lineNumber, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add("Line " + lineNumber + ": " + message);
+        }
+    }
+
+    private Counter recordCounter(String operation, String table) {
+        return Counter.builder("gatekeeper.bulk.records")
+                .description("Records processed by bulk import/export")
+                .tag("operation", operation)
+                .tag("table", table)
+                .register(meterRegistry);
+    }
+
+    private void logProgress(String operation, long records, long startTime) {
+        log.info("Bulk {} progress - records: {}, rate: {}/s", operation, records,
+                String.format("%.1f", rate(records, startTime)));
+    }
+
+    private static double rate(long records, long startTime) {
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        return records * 1000.0 / elapsed;
+    }
+
+    private static void writeTimestamp(JsonGenerator gen, String field, Timestamp timestamp) throws IOException {
+        if (timestamp == null) {
+            gen.writeNullField(field);
+        } else {
+            gen.writeStringField(field, timestamp.toLocalDateTime().format(ISO_FORMATTER) + "Z");
+        }
+    }
+
+    /**
+     * Reads newline-delimited lines while holding at most {@code maxBytes} of any one line;
+     * the rest of a longer line is consumed and dropped, so a body without newlines (or a gzip
+     * bomb expanding into one) cannot exhaust the heap.
+     */
+    static final class LineReader {
+
+        private final InputStream input;
+
+        private final int maxBytes;
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        private boolean overflowed;
+
+        LineReader(InputStream input, int maxBytes) {
+            this.input = new BufferedInputStream(input, 64 * 1024);
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * Advances to the next line, returning false at the end of the input.
+         */
+        boolean next() throws IOException {
+            buffer.reset();
+            overflowed = false;
+            boolean read = false;
+            int b;
+            while ((b = input.read()) != -1) {
+                read = true;
+                if (b == '\n') {
+                    return true;
+                }
+                if (buffer.size() < maxBytes) {
+                    buffer.write(b);
+                } else {
+                    overflowed = true;
+                }
+            }
+            return read;
+        }
+
+        boolean overflowed() {
+            return overflowed;
+        }
+
+        String line() {
+            String line = buffer.toString(StandardCharsets.UTF_8);
+            return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+        }
+    }
+
+    /**
+     * A parsed import line waiting for its batch to be flushed.
+     */
+    private record PendingRow(long line, String id, Object[] args) {
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs, JsonGenerator gen) throws SQLException, IOException;
+    }
+}
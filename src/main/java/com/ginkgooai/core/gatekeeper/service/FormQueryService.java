@@ -0,0 +1,113 @@
+package com.ginkgooai.core.gatekeeper.service;
+
+import com.ginkgooai.core.gatekeeper.dto.CursorPage;
+import com.ginkgooai.core.gatekeeper.dto.form.FormSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Form listing with keyset pagination.
+ * <p>
+ * Pages are ordered by {@code (updated_at DESC, id DESC)} and continue from the last row of the
+ * previous page, so every page is an index range scan on the workspace/status/updated_at index
+ * no matter how deep it is. Name search uses {@code ILIKE} backed by a trigram index.
+ */
+@Service
+@RequiredArgsConstructor
+public class FormQueryService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final char CURSOR_SEPARATOR = '|';
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CursorPage<FormSummary> list(String workspaceId, String name, String status, String cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.clamp(size, 1, MAX_PAGE_SIZE);
+        Query query = buildQuery(workspaceId, name, status, cursor, pageSize);
+
+        List<FormSummary> rows = jdbcTemplate.query(query.sql(), (rs, rowNum) -> new FormSummary(
+                rs.getString("id"),
+                rs.getString("name"),
+                rs.getString("status"),
+                rs.getInt("version"),
+                rs.getTimestamp("updated_at").toLocalDateTime()
+        ), query.args().toArray());
+
+        boolean hasMore = rows.size() > pageSize;
+        List<FormSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeCursor(items.getLast()) : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    static Query buildQuery(String workspaceId, String name, String status, String cursor, int pageSize) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT id, name, status, version, updated_at
+                FROM form_definition
+                WHERE workspace_id = ?
+                """);
+        List<Object> args = new ArrayList<>();
+        args.add(workspaceId);
+
+        if (StringUtils.hasText(status)) {
+            sql.append(" AND status = ?");
+            args.add(status);
+        }
+        if (StringUtils.hasText(name)) {
+            sql.append(" AND name ILIKE ? ESCAPE '\\'");
+            args.add("%" + escapeLike(name.trim()) + "%");
+        }
+        if (StringUtils.hasText(cursor)) {
+            Key key = decodeCursor(cursor);
+            sql.append(" AND (updated_at, id) < (?, ?)");
+            args.add(Timestamp.valueOf(key.updatedAt()));
+            args.add(key.id());
+        }
+        // Fetch one extra row to learn whether another page exists
+        sql.append(" ORDER BY updated_at DESC, id DESC LIMIT ?");
+        args.add(pageSize + 1);
+        return new Query(sql.toString(), args);
+    }
+
+    static String encodeCursor(FormSummary last) {
+        String raw = last.getUpdatedAt() + String.valueOf(CURSOR_SEPARATOR) + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Key decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(CURSOR_SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("missing separator");
+            }
+            return new Key(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    record Key(LocalDateTime updatedAt, String id) {
+    }
+
+    record Query(String sql, List<Object> args) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.ginkgooai.core.gatekeeper.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ginkgooai.core.gatekeeper.audit.AuditEvent;
+import com.ginkgooai.core.gatekeeper.config.mq.FormSubmittedMessage;
+import com.ginkgooai.core.gatekeeper.config.mq.RedissonMQ;
+import com.ginkgooai.core.gatekeeper.dto.submission.FormSubmissionResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FormSubmissionService {
+
+    private static final String ACTIVE = "ACTIVE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final RedissonMQ redissonMQ;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Persists a submission and announces it on the queue.
+     *
+     * @param submissionId ID for the new row; pass a stable value derived from the idempotency
+     *                     key so a retry after a partial failure finds the row it already wrote
+     *                     instead of inserting a second one. {@code null} generates a random ID.
+     * @param msgId        queue message ID; pass a stable value derived from the idempotency key so
+     *                     consumers see the same ID if a retry gets this far again
+     */
+    public FormSubmissionResponse submit(String workspaceId, String userId, String formId, JsonNode data,
+                                         String submissionId, String msgId) {
+        if (data == null || !data.isObject()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Submission data must be a JSON object");
+        }
+
+        if (submissionId != null) {
+            FormSubmissionResponse existing = findSubmission(workspaceId, submissionId);
+            if (existing != null) {
+                log.info("Submission {} already stored, re-announcing it", submissionId);
+                announce(existing, workspaceId, userId, msgId);
+                return existing;
+            }
+        }
+
+        List<Object[]> forms = jdbcTemplate.query(
+                "SELECT version, status FROM form_definition WHERE id = ? AND workspace_id = ?",
+                (rs, rowNum) -> new Object[]{rs.getInt("version"), rs.getString("status")},
+                formId, workspaceId);
+        if (forms.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Form not found: " + formId);
+        }
+        int formVersion = (Integer) forms.getFirst()[0];
+        if (!ACTIVE.equals(forms.getFirst()[1])) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Form is not active: " + formId);
+        }
+
+        String id = submissionId != null ? submissionId : UUID.randomUUID().toString();
+        LocalDateTime submittedAt = LocalDateTime.now();
+        int inserted = jdbcTemplate.update("""
+                        INSERT INTO form_submission (id, workspace_id, form_id, form_version, data, submitted_by, submitted_at)
+                        VALUES (?, ?, ?, ?, ?::jsonb, ?, ?)
+                        ON CONFLICT (id) DO NOTHING
+                        """,
+                id, workspaceId, formId, formVersion, data.toString(), userId, Timestamp.valueOf(submittedAt));
+        if (inserted == 0) {
+            // A concurrent attempt with the same key won the insert
+            FormSubmissionResponse existing = findSubmission(workspaceId, id);
+            if (existing == null) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Submission ID already in use: " + id);
+            }
+            return existing;
+        }
+
+        FormSubmissionResponse response = new FormSubmissionResponse(id, formId, formVersion, submittedAt);
+        announce(response, workspaceId, userId, msgId);
+        eventPublisher.publishEvent(AuditEvent.of(workspaceId, userId, "SUBMIT", "form_submission", id,
+                Map.of("formId", formId, "formVersion", formVersion)));
+        log.debug("Form {} submitted as {} by {}", formId, id, userId);
+        return response;
+    }
+
+    private FormSubmissionResponse findSubmission(String workspaceId, String submissionId) {
+        List<FormSubmissionResponse> rows = jdbcTemplate.query("""
+                        SELECT id, form_id, form_version, submitted_at
+                        FROM form_submission
+                        WHERE id = ? AND workspace_id = ?
+                        """,
+                (rs, rowNum) -> new FormSubmissionResponse(
+                        rs.getString("id"),
+                        rs.getString("form_id"),
+                        rs.getInt("form_version"),
+                        rs.getTimestamp("submitted_at").toLocalDateTime()),
+                submissionId, workspaceId);
+        return rows.isEmpty() ? null : rows.getFirst();
+    }
+
+    private void announce(FormSubmissionResponse submission, String workspaceId, String userId, String msgId) {
+        FormSubmittedMessage message = new FormSubmittedMessage();
+        message.setSubmissionId(submission.getId());
+        message.setWorkspaceId(workspaceId);
+        message.setFormId(submission.getFormId());
+        message.setFormVersion(submission.getFormVersion());
+        message.setSubmittedBy(userId);
+        if (msgId != null) {
+            redissonMQ.send(FormSubmittedMessage.QUEUE_NAME, message, msgId);
+        } else {
+            redissonMQ.send(FormSubmittedMessage.QUEUE_NAME, message);
+        }
+    }
+}
@@ -0,0 +1,519 @@
+package com.ginkgooai.core.gatekeeper.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ginkgooai.core.gatekeeper.audit.AuditEvent;
+import com.ginkgooai.core.gatekeeper.config.datasource.TenantContext;
+import com.ginkgooai.core.gatekeeper.dto.form.CompiledForm;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RBucket;
+import org.redisson.api.RLock;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RScoredSortedSetAsync;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Serves compiled snapshots of active forms from a three-level lookup: a per-node LRU map,
+ * the published snapshot in Redis, and finally Postgres.
+ * <p>
+ * Snapshot and missing-marker lookups go through the Lettuce template, whose {@code ReadFrom}
+ * sends them to replicas; everything that needs read-your-writes (locks, the topic, the
+ * re-check under the compile lock and reads triggered by an announcement) stays on Redisson
+ * and the primary. A lookup can therefore trail a write by the replication delay.
+ * <p>
+ * Compiling from Postgres only ever happens under a per-form Redisson lock, so after a deploy
+ * or an activation exactly one node does the work and publishes the result; the others are
+ * told through a Redis topic and read the published snapshot instead of recomputing it.
+ * Unknown and inactive forms are remembered briefly, locally and in Redis, so repeated misses
+ * cost neither a lock nor a query. Local entries expire and are then re-read from Redis, which
+ * bounds how long a node can miss a change announcement. Edits to a form take effect when it
+ * is (re-)activated; bulk imports evict the snapshots of the forms they touch.
+ * <p>
+ * Everything is kept per {@link FormKey}, i.e. by workspace and form, and Postgres is only
+ * read with {@link TenantContext} set to the form's workspace. Loads outside a request, such
+ * as warmup, therefore see the same schema or database as the workspace's own requests, and
+ * a form is never remembered as missing because it was looked up in the wrong place.
+ * <p>
+ * Accesses that feed startup warming are counted in memory and added to the shared access
+ * set in one batch per flush interval, so cache hits never write to the Redis primary.
+ */
+@Slf4j
+@Service
+public class CompiledFormService {
+
+    static final String SNAPSHOT_KEY = "gatekeeper:form:compiled:";
+
+    private static final String MISSING_KEY = "gatekeeper:form:missing:";
+
+    private static final String LOCK_KEY = "gatekeeper:form:compile-lock:";
+
+    private static final String ACCESS_STATS_KEY = "gatekeeper:form:access";
+
+    private static final String ACCESS_DECAY_KEY = "gatekeeper:form:access:decayed";
+
+    private static final String CHANGED_TOPIC = "gatekeeper:form:activated";
+
+    private static final String ACTIVE = "ACTIVE";
+
+    private final RedissonClient redissonClient;
+
+    private final StringRedisTemplate replicaReads;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final long lockWaitMillis;
+
+    private final long lockLeaseMillis;
+
+    private final long localTtlMillis;
+
+    private final Duration negativeTtl;
+
+    private final int accessStatsSize;
+
+    private final double accessDecay;
+
+    private final Duration accessDecayInterval;
+
+    private final Map<String, LocalEntry> localCache;
+
+    /**
+     * Hits since the last flush, bounded by the access set size.
+     */
+    private final Map<String, LongAdder> pendingAccesses = new ConcurrentHashMap<>();
+
+    private RTopic changedTopic;
+
+    private int listenerId;
+
+    public CompiledFormService(RedissonClient redissonClient,
+                               StringRedisTemplate replicaReads,
+                               JdbcTemplate jdbcTemplate,
+                               ObjectMapper objectMapper,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${gatekeeper.form-cache.local-size:2000}") int localSize,
+                               @Value("${gatekeeper.form-cache.local-ttl:5m}") Duration localTtl,
+                               @Value("${gatekeeper.form-cache.negative-ttl:30s}") Duration negativeTtl,
+                               @Value("${gatekeeper.form-cache.lock-wait:10s}") Duration lockWait,
+                               @Value("${gatekeeper.form-cache.lock-lease:60s}") Duration lockLease,
+                               @Value("${gatekeeper.form-cache.access-stats-size:10000}") int accessStatsSize,
+                               @Value("${gatekeeper.form-cache.access-decay:0.5}") double accessDecay,
+                               @Value("${gatekeeper.form-cache.access-decay-interval-ms:3600000}") long accessDecayIntervalMillis) {
+        this.redissonClient = redissonClient;
+        this.replicaReads = replicaReads;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.lockWaitMillis = lockWait.toMillis();
+        this.lockLeaseMillis = lockLease.toMillis();
+        this.localTtlMillis = localTtl.toMillis();
+        this.negativeTtl = negativeTtl;
+        this.accessStatsSize = accessStatsSize;
+        this.accessDecay = accessDecay;
+        this.accessDecayInterval = Duration.ofMillis(accessDecayIntervalMillis);
+        this.localCache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LocalEntry> eldest) {
+                return size() > localSize;
+            }
+        });
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        changedTopic = redissonClient.getTopic(CHANGED_TOPIC, StringCodec.INSTANCE);
+        listenerId = changedTopic.addListener(String.class, (channel, message) -> {
+            FormKey key = FormKey.parse(message);
+            if (key == null) {
+                return;
+            }
+            // From the primary: a replica may not have the announced change yet
+            CompiledForm published = readPublished(key);
+            if (published != null) {
+                cache(key, published, localTtlMillis);
+                log.debug("Picked up published form {} version {}", key, published.getVersion());
+            } else {
+                localCache.remove(key.toString());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (changedTopic != null) {
+            changedTopic.removeListener(listenerId);
+        }
+        flushAccessStats();
+    }
+
+    /**
+     * Looks up the active snapshot of a form and records the access for startup warming.
+     */
+    public Optional<CompiledForm> get(String workspaceId, String formId) {
+        FormKey key = new FormKey(workspaceId, formId);
+        Optional<CompiledForm> form = load(key);
+        // Only real hits count, so probing random IDs cannot grow the access set
+        form.ifPresent(compiled -> countAccess(key));
+        return form;
+    }
+
+    /**
+     * Loads a snapshot into the local cache without counting it as an access. Postgres is read
+     * on behalf of the given workspace, whatever the calling thread's tenant is.
+     */
+    public Optional<CompiledForm> load(String workspaceId, String formId) {
+        return load(new FormKey(workspaceId, formId));
+    }
+
+    /**
+     * Most accessed forms, hottest first.
+     */
+    public List<FormKey> hottest(int limit) {
+        return accessStats().valueRangeReversed(0, limit - 1).stream()
+                .map(FormKey::parse)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Marks a form active with a new version, then compiles and publishes it once for all nodes.
+     */
+    public CompiledForm activate(String workspaceId, String formId, String userId) {
+        FormKey key = new FormKey(workspaceId, formId);
+        CompiledForm compiled = withCompileLock(key, () -> inTenant(workspaceId, () -> {
+            int updated = jdbcTemplate.update("""
+                    UPDATE form_definition
+                    SET status = 'ACTIVE', version = version + 1, updated_by = ?, updated_at = CURRENT_TIMESTAMP
+                    WHERE id = ? AND workspace_id = ?
+                    """, userId, formId, workspaceId);
+            if (updated == 0) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Form not found: " + formId);
+            }
+            return compileAndPublish(key, true);
+        }));
+        cache(key, compiled, localTtlMillis);
+        eventPublisher.publishEvent(AuditEvent.of(workspaceId, userId, "ACTIVATE", "form_definition", formId,
+                Map.of("version", compiled.getVersion())));
+        return compiled;
+    }
+
+    /**
+     * Drops the published snapshots of a workspace's forms changed outside {@link #activate},
+     * on every node. The next read recompiles from Postgres if the form is still active.
+     */
+    public void evict(String workspaceId, Collection<String> formIds) {
+        if (formIds.isEmpty()) {
+            return;
+        }
+        List<FormKey> forms = formIds.stream().map(formId -> new FormKey(workspaceId, formId)).toList();
+        String[] keys = forms.stream()
+                .flatMap(key -> Stream.of(SNAPSHOT_KEY + key, MISSING_KEY + key))
+                .toArray(String[]::new);
+        redissonClient.getKeys().delete(keys);
+        for (FormKey key : forms) {
+            localCache.remove(key.toString());
+            changedTopic.publishAsync(key.toString());
+        }
+    }
+
+    /**
+     * Adds the accesses counted since the last run to the shared access set, one batch per run.
+     */
+    @Scheduled(fixedDelayString = "${gatekeeper.form-cache.access-flush-interval-ms:10000}")
+    public void flushAccessStats() {
+        if (pendingAccesses.isEmpty()) {
+            return;
+        }
+        RBatch batch = redissonClient.createBatch();
+        RScoredSortedSetAsync<String> stats = batch.getScoredSortedSet(ACCESS_STATS_KEY, StringCodec.INSTANCE);
+        int forms = 0;
+        for (String key : pendingAccesses.keySet()) {
+            // A hit racing with the removal may be lost; these are warm-up hints, not billing
+            LongAdder count = pendingAccesses.remove(key);
+            if (count != null) {
+                stats.addScoreAsync(key, count.sum());
+                forms++;
+            }
+        }
+        try {
+            batch.execute();
+            log.debug("Flushed access counts of {} forms", forms);
+        } catch (Exception e) {
+            log.warn("Failed to flush access counts of {} forms", forms, e);
+        }
+    }
+
+    /**
+     * Decays access counts so the warm-up set follows recent traffic, and trims the set to its
+     * configured size. Runs on one node per interval.
+     */
+    @Scheduled(fixedDelayString = "${gatekeeper.form-cache.access-decay-interval-ms:3600000}",
+            initialDelayString = "${gatekeeper.form-cache.access-decay-interval-ms:3600000}")
+    public void decayAccessStats() {
+        try {
+            if (!redissonClient.getBucket(ACCESS_DECAY_KEY, StringCodec.INSTANCE).setIfAbsent("1", accessDecayInterval)) {
+                return;
+            }
+            RScoredSortedSet<String> stats = accessStats();
+            stats.union(Map.of(ACCESS_STATS_KEY, accessDecay));
+            int removed = stats.removeRangeByRank(0, -accessStatsSize - 1);
+            log.debug("Decayed form access stats, trimmed {} entries", removed);
+        } catch (Exception e) {
+            log.warn("Failed to decay form access stats", e);
+        }
+    }
+
+    private Optional<CompiledForm> load(FormKey key) {
+        LocalEntry cached = localCache.get(key.toString());
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return Optional.ofNullable(cached.form());
+        }
+
+        CompiledForm published = readReplica(key);
+        if (published == null) {
+            if (Boolean.TRUE.equals(replicaReads.hasKey(MISSING_KEY + key))
+                    || !inTenant(key.workspaceId(), () -> isActive(key))) {
+                return rememberMissing(key);
+            }
+            published = withCompileLock(key, () -> {
+                // Another node may have published while we were waiting for the lock
+                CompiledForm latest = readPublished(key);
+                return latest != null ? latest : inTenant(key.workspaceId(), () -> compileAndPublish(key, false));
+            });
+            if (published == null) {
+                return rememberMissing(key);
+            }
+        }
+        cache(key, published, localTtlMillis);
+        return Optional.of(published);
+    }
+
+    private CompiledForm compileAndPublish(FormKey key, boolean notify) {
+        List<CompiledForm> rows = jdbcTemplate.query("""
+                SELECT id, workspace_id, name, status, version, schema::text AS schema
+                FROM form_definition
+                WHERE id = ? AND workspace_id = ?
+                """, (rs, rowNum) -> {
+            if (!ACTIVE.equals(rs.getString("status"))) {
+                return null;
+            }
+            CompiledForm form = new CompiledForm();
+            form.setId(rs.getString("id"));
+            form.setWorkspaceId(rs.getString("workspace_id"));
+            form.setName(rs.getString("name"));
+            form.setVersion(rs.getInt("version"));
+            form.setSchema(readTree(rs.getString("schema")));
+            return form;
+        }, key.formId(), key.workspaceId());
+        if (rows.isEmpty() || rows.getFirst() == null) {
+            return null;
+        }
+
+        CompiledForm form = rows.getFirst();
+        indexFields(form.getSchema(), form.getFields());
+        form.setCompiledAt(System.currentTimeMillis());
+
+        snapshot(key).set(write(form));
+        missing(key).delete();
+        if (notify) {
+            changedTopic.publish(key.toString());
+        }
+        log.info("Compiled and published form {} version {}", key, form.getVersion());
+        return form;
+    }
+
+    /**
+     * Collects every object inside a {@code fields} array by its {@code key}, at any depth.
+     */
+    private void indexFields(JsonNode node, Map<String, JsonNode> fields) {
+        if (node == null) {
+            return;
+        }
+        if (node.isObject()) {
+            JsonNode children = node.get("fields");
+            if (children != null && children.isArray()) {
+                for (JsonNode field : children) {
+                    JsonNode key = field.get("key");
+                    if (key != null && key.isTextual()) {
+                        fields.put(key.asText(), field);
+                    }
+                }
+            }
+            node.elements().forEachRemaining(child -> indexFields(child, fields));
+        } else if (node.isArray()) {
+            node.elements().forEachRemaining(child -> indexFields(child, fields));
+        }
+    }
+
+    private void countAccess(FormKey key) {
+        LongAdder count = pendingAccesses.get(key.toString());
+        if (count == null) {
+            if (pendingAccesses.size() >= accessStatsSize) {
+                return;
+            }
+            count = pendingAccesses.computeIfAbsent(key.toString(), ignored -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    private boolean isActive(FormKey key) {
+        List<String> statuses = jdbcTemplate.queryForList(
+                "SELECT status FROM form_definition WHERE id = ? AND workspace_id = ?",
+                String.class, key.formId(), key.workspaceId());
+        return !statuses.isEmpty() && ACTIVE.equals(statuses.getFirst());
+    }
+
+    /**
+     * Runs database work on behalf of a workspace, so it is routed to that workspace's schema
+     * or database even on threads without a request (warmup, change announcements).
+     */
+    private static <T> T inTenant(String workspaceId, Supplier<T> action) {
+        String previousTenant = TenantContext.current();
+        TenantContext.set(workspaceId);
+        try {
+            return action.get();
+        } finally {
+            TenantContext.set(previousTenant);
+        }
+    }
+
+    private Optional<CompiledForm> rememberMissing(FormKey key) {
+        missing(key).set("1", negativeTtl.toMillis(), TimeUnit.MILLISECONDS);
+        cache(key, null, negativeTtl.toMillis());
+        return Optional.empty();
+    }
+
+    private void cache(FormKey key, CompiledForm form, long ttlMillis) {
+        localCache.put(key.toString(), new LocalEntry(form, System.currentTimeMillis() + ttlMillis));
+    }
+
+    private <T> T withCompileLock(FormKey key, Supplier<T> action) {
+        RLock lock = redissonClient.getLock(LOCK_KEY + key);
+        boolean locked;
+        try {
+            locked = lock.tryLock(lockWaitMillis, lockLeaseMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for form " + key.formId());
+        }
+        if (!locked) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Form " + key.formId() + " is being compiled, try again");
+        }
+        try {
+            return action.get();
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private RBucket<String> snapshot(FormKey key) {
+        return redissonClient.getBucket(SNAPSHOT_KEY + key, StringCodec.INSTANCE);
+    }
+
+    private RBucket<String> missing(FormKey key) {
+        return redissonClient.getBucket(MISSING_KEY + key, StringCodec.INSTANCE);
+    }
+
+    private RScoredSortedSet<String> accessStats() {
+        return redissonClient.getScoredSortedSet(ACCESS_STATS_KEY, StringCodec.INSTANCE);
+    }
+
+    private CompiledForm readReplica(FormKey key) {
+        return readSnapshot(key, replicaReads.opsForValue().get(SNAPSHOT_KEY + key));
+    }
+
+    private CompiledForm readPublished(FormKey key) {
+        return readSnapshot(key, snapshot(key).get());
+    }
+
+    private CompiledForm readSnapshot(FormKey key, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(value, CompiledForm.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable snapshot of form {}", key, e);
+            return null;
+        }
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored form schema is not valid JSON", e);
+        }
+    }
+
+    private String write(CompiledForm form) {
+        try {
+            return objectMapper.writeValueAsString(form);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize compiled form", e);
+        }
+    }
+
+    /**
+     * A locally cached snapshot, or {@code null} for a form known to be missing or inactive.
+     */
+    private record LocalEntry(CompiledForm form, long expiresAt) {
+    }
+
+    /**
+     * A form and the workspace that owns it, written as {@code workspaceId:formId} in Redis
+     * keys, the access set and change announcements.
+     */
+    public record FormKey(String workspaceId, String formId) {
+
+        /**
+         * Reads a key written by {@link #toString()}, or returns {@code null} for anything else.
+         */
+        static FormKey parse(String value) {
+            int separator = value.lastIndexOf(':');
+            if (separator <= 0 || separator == value.length() - 1) {
+                return null;
+            }
+            return new FormKey(value.substring(0, separator), value.substring(separator + 1));
+        }
+
+        @Override
+        public String toString() {
+            return workspaceId + ":" + formId;
+        }
+    }
+}
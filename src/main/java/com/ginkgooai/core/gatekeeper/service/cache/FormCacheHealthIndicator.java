@@ -0,0 +1,41 @@
+package com.ginkgooai.core.gatekeeper.service.cache;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reports {@code OUT_OF_SERVICE} until {@link FormCacheWarmer} has preloaded the hot forms,
+ * keeping a fresh replica out of rotation while its cache is cold. Exposed as {@code formCache}
+ * and part of the {@code readiness} health group.
+ */
+@Component("formCache")
+public class FormCacheHealthIndicator implements HealthIndicator {
+
+    private final AtomicReference<Health> state = new AtomicReference<>(
+            Health.status(Status.OUT_OF_SERVICE).withDetail("warmup", "pending").build());
+
+    @Override
+    public Health health() {
+        return state.get();
+    }
+
+    void warming(int target) {
+        state.set(Health.status(Status.OUT_OF_SERVICE)
+                .withDetail("warmup", "running")
+                .withDetail("target", target)
+                .build());
+    }
+
+    void warmed(int loaded, int target, long elapsedMillis) {
+        state.set(Health.up()
+                .withDetail("warmup", "done")
+                .withDetail("loaded", loaded)
+                .withDetail("target", target)
+                .withDetail("elapsedMillis", elapsedMillis)
+                .build());
+    }
+}
@@ -0,0 +1,65 @@
+package com.ginkgooai.core.gatekeeper.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Preloads the most accessed forms once the application has started. Hot forms normally
+ * come from the snapshots published in Redis, so a rolling deploy does not hit Postgres
+ * once per replica. Forms that do need compiling are read from their own workspace's schema
+ * or database. Warming is best-effort: failures and the time budget only shorten it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FormCacheWarmer {
+
+    private final CompiledFormService compiledFormService;
+
+    private final FormCacheHealthIndicator healthIndicator;
+
+    @Value("${gatekeeper.form-cache.warmup-size:200}")
+    private int warmupSize;
+
+    @Value("${gatekeeper.form-cache.warmup-timeout:60s}")
+    private Duration warmupTimeout;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long startTime = System.currentTimeMillis();
+        long deadline = startTime + warmupTimeout.toMillis();
+        int loaded = 0;
+        int target = 0;
+        try {
+            List<CompiledFormService.FormKey> forms = warmupSize > 0 ? compiledFormService.hottest(warmupSize) : List.of();
+            target = forms.size();
+            healthIndicator.warming(target);
+            for (CompiledFormService.FormKey form : forms) {
+                if (System.currentTimeMillis() > deadline) {
+                    log.warn("Form cache warmup hit its {} budget after {} of {} forms", warmupTimeout, loaded, target);
+                    break;
+                }
+                try {
+                    if (compiledFormService.load(form.workspaceId(), form.formId()).isPresent()) {
+                        loaded++;
+                    }
+                } catch (Exception e) {
+                    log.warn("Failed to warm form {}", form, e);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Form cache warmup aborted", e);
+        } finally {
+            long elapsed = System.currentTimeMillis() - startTime;
+            healthIndicator.warmed(loaded, target, elapsed);
+            log.info("Form cache warmed - loaded: {}/{}, time: {}ms", loaded, target, elapsed);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+-- V1.1__form_definition.sql
+CREATE TABLE IF NOT EXISTS form_definition
+(
+    id           VARCHAR(36) PRIMARY KEY,
+    workspace_id VARCHAR(36)  NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    description  TEXT,
+    status       VARCHAR(32)  NOT NULL DEFAULT 'DRAFT',
+    version      INTEGER      NOT NULL DEFAULT 1,
+    schema       JSONB        NOT NULL,
+    created_at   TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at   TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by   VARCHAR(36),
+    updated_by   VARCHAR(36)
+);
+
+CREATE TABLE IF NOT EXISTS form_submission
+(
+    id           VARCHAR(36) PRIMARY KEY,
+    workspace_id VARCHAR(36) NOT NULL,
+    form_id      VARCHAR(36) NOT NULL REFERENCES form_definition (id),
+    form_version INTEGER     NOT NULL,
+    data         JSONB       NOT NULL,
+    submitted_by VARCHAR(36),
+    submitted_at TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Export walks submissions of one form in submission order
+CREATE INDEX IF NOT EXISTS idx_form_submission_form_submitted
+    ON form_submission (workspace_id, form_id, submitted_at, id);
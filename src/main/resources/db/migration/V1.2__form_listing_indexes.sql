@@ -0,0 +1,13 @@
+-- V1.2__form_listing_indexes.sql
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Keyset pagination: newest first within a workspace, optionally narrowed by status
+CREATE INDEX IF NOT EXISTS idx_form_definition_ws_status_updated
+    ON form_definition (workspace_id, status, updated_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_form_definition_ws_updated
+    ON form_definition (workspace_id, updated_at DESC, id DESC);
+
+-- Substring name search (ILIKE '%term%')
+CREATE INDEX IF NOT EXISTS idx_form_definition_name_trgm
+    ON form_definition USING gin (name gin_trgm_ops);
@@ -0,0 +1,34 @@
+-- V1.3__audit_event.sql
+CREATE TABLE IF NOT EXISTS audit_event
+(
+    id           VARCHAR(36) NOT NULL,
+    occurred_at  TIMESTAMP   NOT NULL,
+    workspace_id VARCHAR(36),
+    actor_id     VARCHAR(36),
+    action       VARCHAR(64) NOT NULL,
+    entity_type  VARCHAR(64) NOT NULL,
+    entity_id    VARCHAR(36),
+    details      JSONB,
+    recorded_at  TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, occurred_at)
+) PARTITION BY RANGE (occurred_at);
+
+-- Monthly partitions are created ahead of time by AuditPartitionMaintainer;
+-- the default partition only catches events outside the prepared range.
+CREATE TABLE IF NOT EXISTS audit_event_default PARTITION OF audit_event DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_audit_event_entity
+    ON audit_event (workspace_id, entity_type, entity_id, occurred_at);
+
+CREATE OR REPLACE FUNCTION audit_event_append_only() RETURNS TRIGGER AS
+$$
+BEGIN
+    RAISE EXCEPTION 'audit_event is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER audit_event_no_modify
+    BEFORE UPDATE OR DELETE
+    ON audit_event
+    FOR EACH ROW
+EXECUTE FUNCTION audit_event_append_only();
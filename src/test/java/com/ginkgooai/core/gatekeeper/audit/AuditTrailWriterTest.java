@@ -0,0 +1,263 @@
+package com.ginkgooai.core.gatekeeper.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RList;
+import org.redisson.api.RLock;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuditTrailWriterTest {
+
+    private static final String SPILL_KEY = "{gatekeeper:audit:spill}";
+
+    private static final String PROCESSING_KEY = SPILL_KEY + ":processing";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /**
+     * Contents of the Redis spill and processing lists.
+     */
+    private final List<String> spilled = new ArrayList<>();
+
+    private final List<String> processing = new ArrayList<>();
+
+    /**
+     * Rows of every successful batch insert, one list per batch.
+     */
+    private final List<List<Object[]>> inserted = new ArrayList<>();
+
+    private RedissonClient redissonClient;
+
+    private RList<String> spillList;
+
+    private RLock drainLock;
+
+    private RScript script;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redissonClient = mock(RedissonClient.class);
+        spillList = list(spilled);
+        RList<String> processingList = list(processing);
+        when(redissonClient.<String>getList(eq(SPILL_KEY), any(Codec.class))).thenReturn(spillList);
+        when(redissonClient.<String>getList(eq(PROCESSING_KEY), any(Codec.class))).thenReturn(processingList);
+
+        drainLock = mock(RLock.class);
+        when(drainLock.tryLock()).thenReturn(true);
+        when(drainLock.isHeldByCurrentThread()).thenReturn(true);
+        when(redissonClient.getLock(anyString())).thenReturn(drainLock);
+
+        // Stands in for the Lua move: head of the spill list onto the processing list
+        script = mock(RScript.class);
+        when(script.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), anyString()))
+                .thenAnswer(invocation -> {
+                    int count = Math.min(spilled.size(), Integer.parseInt(invocation.getArgument(4)));
+                    List<String> moved = new ArrayList<>(spilled.subList(0, count));
+                    spilled.subList(0, count).clear();
+                    processing.addAll(moved);
+                    return moved;
+                });
+        when(redissonClient.getScript(any(Codec.class))).thenReturn(script);
+
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            inserted.add(invocation.getArgument(1));
+            return new int[0];
+        });
+    }
+
+    @Test
+    void writesQueuedEventsInBatches() {
+        AuditTrailWriter writer = writer(10, 10, 2);
+        for (int i = 0; i < 5; i++) {
+            writer.enqueue(event("e-" + i));
+        }
+
+        writer.flush();
+
+        assertThat(inserted).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(spilled).isEmpty();
+        assertThat(meterRegistry.counter("gatekeeper.audit.events", "outcome", "written").count()).isEqualTo(5);
+    }
+
+    @Test
+    void spillsAFailedBatchAndBacksOffFromPostgres() {
+        AuditTrailWriter writer = writer(10, 10, 10);
+        doThrow(new QueryTimeoutException("slow")).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+        writer.enqueue(event("e-1"));
+        writer.flush();
+        writer.enqueue(event("e-2"));
+        writer.flush();
+
+        assertThat(ids(spilled)).containsExactly("e-1", "e-2");
+        // The second batch went straight to Redis without trying Postgres
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+        verify(script, never()).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), anyString());
+    }
+
+    @Test
+    void buffersOverflowAndSpillsItOneBatchAtATime() {
+        AuditTrailWriter writer = writer(2, 2, 2);
+        for (int i = 0; i < 6; i++) {
+            writer.enqueue(event("e-" + i));
+        }
+
+        // e-0..e-1 are queued, e-2..e-3 filled the overflow buffer, e-4 made the caller spill
+        // a batch of e-2 and e-4, and e-5 took the freed slot
+        verify(spillList, times(1)).addAll(anyCollection());
+        assertThat(ids(spilled)).containsExactly("e-2", "e-4");
+        verify(spillList, never()).addAllAsync(anyCollection());
+
+        writer.flush();
+
+        verify(spillList, times(2)).addAll(anyCollection());
+        assertThat(inserted).hasSize(3);
+        assertThat(inserted.stream().flatMap(List::stream).map(row -> (String) row[0]))
+                .containsExactlyInAnyOrder("e-0", "e-1", "e-2", "e-3", "e-4", "e-5");
+        assertThat(spilled).isEmpty();
+    }
+
+    @Test
+    void drainsTheSpillThroughTheProcessingList() throws Exception {
+        AuditTrailWriter writer = writer(10, 10, 2);
+        spilled.addAll(List.of(json("s-1"), json("s-2"), json("s-3")));
+
+        writer.flush();
+
+        assertThat(inserted).extracting(List::size).containsExactly(2, 1);
+        assertThat(spilled).isEmpty();
+        assertThat(processing).isEmpty();
+        verify(drainLock).unlock();
+    }
+
+    @Test
+    void writesWhatACrashedDrainLeftBehindFirst() throws Exception {
+        AuditTrailWriter writer = writer(10, 10, 10);
+        processing.add(json("left-1"));
+        spilled.add(json("s-1"));
+
+        writer.flush();
+
+        assertThat(inserted).hasSize(2);
+        assertThat(inserted.getFirst().getFirst()[0]).isEqualTo("left-1");
+        assertThat(inserted.get(1).getFirst()[0]).isEqualTo("s-1");
+        assertThat(processing).isEmpty();
+    }
+
+    @Test
+    void dropsUnreadableEntriesAndWritesTheRest() throws Exception {
+        AuditTrailWriter writer = writer(10, 10, 10);
+        processing.addAll(List.of("{not json", json("ok-1")));
+
+        writer.flush();
+
+        assertThat(inserted).hasSize(1);
+        assertThat(inserted.getFirst()).extracting(row -> row[0]).containsExactly("ok-1");
+        assertThat(processing).isEmpty();
+        assertThat(meterRegistry.counter("gatekeeper.audit.events", "outcome", "dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsTheProcessingListWhenTheDrainFails() throws Exception {
+        AuditTrailWriter writer = writer(10, 10, 10);
+        doThrow(new QueryTimeoutException("down")).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        spilled.addAll(List.of(json("s-1"), json("s-2")));
+
+        writer.flush();
+        writer.flush();
+
+        assertThat(ids(processing)).containsExactly("s-1", "s-2");
+        assertThat(spilled).isEmpty();
+        // Backing off after the failure, so the second flush did not retry
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void leavesTheDrainToTheNodeHoldingTheLock() throws Exception {
+        AuditTrailWriter writer = writer(10, 10, 10);
+        when(drainLock.tryLock()).thenReturn(false);
+        when(drainLock.isHeldByCurrentThread()).thenReturn(false);
+        spilled.add(json("s-1"));
+
+        writer.flush();
+
+        assertThat(inserted).isEmpty();
+        assertThat(spilled).hasSize(1);
+        verify(drainLock, never()).unlock();
+    }
+
+    private AuditTrailWriter writer(int queueCapacity, int overflowCapacity, int batchSize) {
+        return new AuditTrailWriter(jdbcTemplate, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                redissonClient, meterRegistry, queueCapacity, overflowCapacity, batchSize,
+                Duration.ofSeconds(2), Duration.ofSeconds(30));
+    }
+
+    private static AuditEvent event(String id) {
+        AuditEvent event = AuditEvent.of("ws-1", "user-1", "IMPORT", "form_definition", "form-1", Map.of("line", 1));
+        event.setId(id);
+        return event;
+    }
+
+    private String json(String id) throws Exception {
+        return objectMapper.writeValueAsString(event(id));
+    }
+
+    private List<String> ids(List<String> values) {
+        return values.stream().map(value -> {
+            try {
+                return objectMapper.readValue(value, AuditEvent.class).getId();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RList<String> list(List<String> values) {
+        RList<String> list = mock(RList.class);
+        when(list.addAll(anyCollection())).thenAnswer(invocation -> values.addAll(invocation.<Collection<String>>getArgument(0)));
+        when(list.size()).thenAnswer(invocation -> values.size());
+        when(list.isEmpty()).thenAnswer(invocation -> values.isEmpty());
+        when(list.readAll()).thenAnswer(invocation -> new ArrayList<>(values));
+        when(list.remove(any())).thenAnswer(invocation -> values.remove((Object) invocation.getArgument(0)));
+        when(list.delete()).thenAnswer(invocation -> {
+            boolean existed = !values.isEmpty();
+            values.clear();
+            return existed;
+        });
+        return list;
+    }
+}
@@ -0,0 +1,64 @@
+package com.ginkgooai.core.gatekeeper.config.datasource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TenantDataSourceConfigTest {
+
+    /**
+     * Same settings as spring.flyway in application.yaml.
+     */
+    private final Flyway shared = Flyway.configure()
+            .locations("classpath:db/migration")
+            .baselineOnMigrate(true)
+            .schemas("workspace")
+            .table("flyway_workspace_history")
+            .load();
+
+    private final DataSource sharedDataSource = mock(DataSource.class);
+
+    @Test
+    void migratesASchemaTenantThroughTheSharedPool() {
+        TenancyProperties.Tenant tenant = new TenancyProperties.Tenant();
+        tenant.setSchema("tenant_s");
+
+        Flyway flyway = TenantDataSourceConfig.tenantFlyway(shared, sharedDataSource, tenant);
+
+        assertThat(flyway.getConfiguration().getDataSource()).isSameAs(sharedDataSource);
+        assertThat(flyway.getConfiguration().getSchemas()).containsExactly("tenant_s");
+        assertThat(flyway.getConfiguration().getDefaultSchema()).isEqualTo("tenant_s");
+        assertThat(flyway.getConfiguration().getTable()).isEqualTo("flyway_workspace_history");
+        assertThat(flyway.getConfiguration().isBaselineOnMigrate()).isTrue();
+    }
+
+    @Test
+    void migratesADedicatedDatabaseWithItsOwnCredentials() {
+        TenancyProperties.Tenant tenant = new TenancyProperties.Tenant();
+        tenant.setUrl("jdbc:postgresql://tenant-db:5432/gatekeeper?currentSchema=workspace");
+        tenant.setUsername("tenant");
+        tenant.setPassword("secret");
+        // The dedicated database takes precedence, as it does for routing
+        tenant.setSchema("ignored");
+
+        Flyway flyway = TenantDataSourceConfig.tenantFlyway(shared, sharedDataSource, tenant);
+
+        assertThat(flyway.getConfiguration().getUrl()).isEqualTo(tenant.getUrl());
+        assertThat(flyway.getConfiguration().getUser()).isEqualTo("tenant");
+        assertThat(flyway.getConfiguration().getSchemas()).containsExactly("workspace");
+        assertThat(flyway.getConfiguration().getLocations()).extracting(Object::toString)
+                .containsExactly("classpath:db/migration");
+    }
+
+    @Test
+    void leavesWorkspacesOnTheSharedSchemaToTheSharedMigration() {
+        TenancyProperties.Tenant tenant = new TenancyProperties.Tenant();
+        tenant.setWeight(2.0);
+
+        assertThat(TenantDataSourceConfig.tenantFlyway(shared, sharedDataSource, tenant)).isNull();
+    }
+}
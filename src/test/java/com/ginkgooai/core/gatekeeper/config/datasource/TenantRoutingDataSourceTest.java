@@ -0,0 +1,223 @@
+package com.ginkgooai.core.gatekeeper.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TenantRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /**
+     * Connections the stub pool handed out, in order.
+     */
+    private final List<Connection> targets = new ArrayList<>();
+
+    private final Deque<Connection> queued = new ArrayDeque<>();
+
+    @AfterEach
+    void clearContext() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void capsAWorkspaceAtItsQuotaWhileOthersStillConnect() throws SQLException {
+        // Pool of 8 with the default share gives every workspace a quota of 2
+        TenantRoutingDataSource dataSource = dataSource(8, 0.25, properties -> {
+        });
+
+        connect(dataSource, "ws-a");
+        connect(dataSource, "ws-a");
+        assertThatThrownBy(() -> connect(dataSource, "ws-a"))
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("quota of 2");
+
+        assertThat(connect(dataSource, "ws-b")).isNotNull();
+        assertThat(meterRegistry.get("gatekeeper.datasource.timeouts").tag("workspace", "ws-a").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("gatekeeper.datasource.active").tag("workspace", "ws-a").gauge().value())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void releasesTheQuotaOnCloseExactlyOnce() throws SQLException {
+        TenantRoutingDataSource dataSource = dataSource(8, 0.25, properties -> {
+        });
+        Connection first = connect(dataSource, "ws-a");
+        connect(dataSource, "ws-a");
+
+        first.close();
+        first.close();
+        assertThat(first.isClosed()).isTrue();
+        verify(targets.getFirst()).close();
+
+        connect(dataSource, "ws-a");
+        assertThatThrownBy(() -> connect(dataSource, "ws-a")).isInstanceOf(SQLTransientConnectionException.class);
+    }
+
+    @Test
+    void queuesWorkspacesOnTheSharedGate() throws SQLException {
+        // Pool of 2 with a full share: each workspace may take the whole pool
+        TenantRoutingDataSource dataSource = dataSource(2, 1.0, properties -> {
+        });
+        Connection first = connect(dataSource, "ws-a");
+        connect(dataSource, "ws-a");
+
+        assertThatThrownBy(() -> connect(dataSource, "ws-b"))
+                .isInstanceOf(SQLTransientConnectionException.class)
+                .hasMessageContaining("No shared connection");
+
+        first.close();
+        // ws-b got its quota permit back after the gate timed out, so it can use the freed slot
+        assertThat(connect(dataSource, "ws-b")).isNotNull();
+    }
+
+    @Test
+    void releasesPermitsWhenSwitchingSchemaFails() throws SQLException {
+        TenantRoutingDataSource dataSource = dataSource(2, 1.0, properties -> {
+            TenancyProperties.Tenant tenant = new TenancyProperties.Tenant();
+            tenant.setSchema("tenant_s");
+            properties.getTenants().put("ws-s", tenant);
+        });
+        Connection failing = mock(Connection.class);
+        doThrow(new SQLException("no such schema")).when(failing).setSchema("tenant_s");
+        queued.add(failing);
+
+        assertThatThrownBy(() -> connect(dataSource, "ws-s")).hasMessage("no such schema");
+        verify(failing).close();
+
+        // Both the quota and the shared gate are intact
+        connect(dataSource, "ws-s");
+        connect(dataSource, "ws-s");
+    }
+
+    @Test
+    void restoresTheSchemaOnClose() throws SQLException {
+        TenantRoutingDataSource dataSource = dataSource(8, 0.25, properties -> {
+            TenancyProperties.Tenant tenant = new TenancyProperties.Tenant();
+            tenant.setSchema("tenant_s");
+            properties.getTenants().put("ws-s", tenant);
+        });
+
+        Connection connection = connect(dataSource, "ws-s");
+        Connection target = targets.getLast();
+        verify(target).setSchema("tenant_s");
+
+        connection.close();
+        verify(target).setSchema("workspace");
+        verify(target).close();
+    }
+
+    @Test
+    void timesOutAfterTheAcquireTimeout() throws SQLException {
+        TenantRoutingDataSource dataSource = dataSource(4, 0.25, properties -> {
+        });
+        connect(dataSource, "ws-a");
+
+        long startTime = System.nanoTime();
+        assertThatThrownBy(() -> connect(dataSource, "ws-a")).isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - startTime)).isGreaterThanOrEqualTo(Duration.ofMillis(90));
+    }
+
+    @Test
+    void rejectsPerCallCredentials() {
+        TenantRoutingDataSource dataSource = dataSource(4, 0.25, properties -> {
+        });
+
+        assertThatThrownBy(() -> dataSource.getConnection("user", "secret"))
+                .isInstanceOf(SQLFeatureNotSupportedException.class);
+    }
+
+    @Test
+    void evictsIdleWorkspacesAndCapsMetricTags() throws SQLException {
+        TenantRoutingDataSource dataSource = dataSource(8, 0.25, properties -> {
+            properties.setMaxTrackedTenants(10);
+            properties.setMaxTaggedTenants(3);
+        });
+
+        for (int i = 0; i < 50; i++) {
+            connect(dataSource, "ws-" + i).close();
+        }
+
+        assertThat(dataSource.trackedTenants()).isLessThanOrEqualTo(10);
+        List<String> tags = meterRegistry.find("gatekeeper.datasource.acquire").timers().stream()
+                .map(timer -> timer.getId().getTag("workspace"))
+                .toList();
+        assertThat(tags).contains("system", "other").hasSizeLessThanOrEqualTo(5);
+        Timer other = meterRegistry.get("gatekeeper.datasource.acquire").tag("workspace", "other").timer();
+        assertThat(other.count()).isPositive();
+    }
+
+    @Test
+    void neverEvictsAWorkspaceHoldingConnections() throws SQLException {
+        TenantRoutingDataSource dataSource = dataSource(8, 0.25, properties -> properties.setMaxTrackedTenants(3));
+        connect(dataSource, "ws-busy");
+        connect(dataSource, "ws-busy");
+
+        for (int i = 0; i < 20; i++) {
+            connect(dataSource, "ws-" + i).close();
+        }
+
+        // A recreated state would come with a fresh semaphore and let this through
+        assertThatThrownBy(() -> connect(dataSource, "ws-busy")).isInstanceOf(SQLTransientConnectionException.class);
+    }
+
+    private Connection connect(TenantRoutingDataSource dataSource, String workspaceId) throws SQLException {
+        TenantContext.set(workspaceId);
+        try {
+            return dataSource.getConnection();
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    /**
+     * Routing data source over a stub pool that hands out the {@link #queued} connections
+     * first and fresh mocks after that.
+     */
+    private TenantRoutingDataSource dataSource(int poolSize, double sharePerWeight, Consumer<TenancyProperties> customizer) {
+        HikariDataSource shared = mock(HikariDataSource.class);
+        when(shared.getMaximumPoolSize()).thenReturn(poolSize);
+        try {
+            when(shared.getConnection()).thenAnswer(invocation -> {
+                Connection connection = queued.isEmpty() ? newTarget() : queued.poll();
+                targets.add(connection);
+                return connection;
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+
+        TenancyProperties properties = new TenancyProperties();
+        properties.setAcquireTimeout(Duration.ofMillis(100));
+        properties.setSharePerWeight(sharePerWeight);
+        customizer.accept(properties);
+        return new TenantRoutingDataSource(shared, properties, meterRegistry);
+    }
+
+    private static Connection newTarget() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.getSchema()).thenReturn("workspace");
+        return connection;
+    }
+}
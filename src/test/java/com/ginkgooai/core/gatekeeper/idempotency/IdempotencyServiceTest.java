@@ -0,0 +1,158 @@
+package com.ginkgooai.core.gatekeeper.idempotency;
+
+import com.ginkgooai.core.gatekeeper.dto.submission.FormSubmissionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private static final Duration TTL = Duration.ofHours(24);
+
+    private static final Duration CLAIM_LEASE = Duration.ofSeconds(30);
+
+    private static final String SCOPE = "ws-1:user-1";
+
+    private final AtomicReference<String> stored = new AtomicReference<>();
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private RBucket<String> bucket;
+
+    private IdempotencyService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        bucket = mock(RBucket.class);
+        when(bucket.get()).thenAnswer(invocation -> stored.get());
+        when(bucket.setIfAbsent(anyString(), any(Duration.class)))
+                .thenAnswer(invocation -> stored.compareAndSet(null, invocation.getArgument(0)));
+        when(bucket.delete()).thenAnswer(invocation -> stored.getAndSet(null) != null);
+        doAnswer(invocation -> {
+            stored.set(invocation.getArgument(0));
+            return null;
+        }).when(bucket).set(anyString(), anyLong(), any(TimeUnit.class));
+
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        when(redissonClient.<String>getBucket(anyString(), any(Codec.class))).thenReturn(bucket);
+
+        service = new IdempotencyService(redissonClient, new SimpleMeterRegistry(), TTL, CLAIM_LEASE, 1_000, 0.01);
+    }
+
+    @Test
+    void runsTheFirstRequestAndKeepsTheResponseForTheFullTtl() {
+        ResponseEntity<FormSubmissionResponse> response = execute("fp", HttpStatus.CREATED);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(calls).hasValue(1);
+        verify(bucket).setIfAbsent(anyString(), eq(CLAIM_LEASE));
+        verify(bucket).set(anyString(), eq(TTL.toMillis()), eq(TimeUnit.MILLISECONDS));
+        assertThat(stored.get()).contains("COMPLETED");
+    }
+
+    @Test
+    void replaysTheStoredResponse() {
+        ResponseEntity<FormSubmissionResponse> first = execute("fp", HttpStatus.CREATED);
+        ResponseEntity<FormSubmissionResponse> replayed = execute("fp", HttpStatus.CREATED);
+
+        assertThat(calls).hasValue(1);
+        assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(replayed.getBody()).isEqualTo(first.getBody());
+    }
+
+    @Test
+    void rejectsAKeyReusedForADifferentRequest() {
+        execute("fp", HttpStatus.CREATED);
+
+        assertThatThrownBy(() -> execute("other", HttpStatus.CREATED))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void rejectsARetryWhileTheFirstRequestIsInProgress() {
+        stored.set("{\"state\":\"IN_PROGRESS\",\"fingerprint\":\"fp\",\"status\":0}");
+
+        assertThatThrownBy(() -> execute("fp", HttpStatus.CREATED))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    void releasesTheClaimOnServerError() {
+        execute("fp", HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(stored.get()).isNull();
+
+        ResponseEntity<FormSubmissionResponse> retried = execute("fp", HttpStatus.CREATED);
+        assertThat(retried.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void releasesTheClaimWhenTheActionThrows() {
+        assertThatThrownBy(() -> service.execute(SCOPE, "key-1", "fp", FormSubmissionResponse.class, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(stored.get()).isNull();
+    }
+
+    @Test
+    void runsTheActionWithoutAKey() {
+        service.execute(SCOPE, null, "fp", FormSubmissionResponse.class, this::respond);
+        service.execute(SCOPE, null, "fp", FormSubmissionResponse.class, this::respond);
+
+        assertThat(calls).hasValue(2);
+        assertThat(stored.get()).isNull();
+    }
+
+    @Test
+    void derivesTheSameResourceIdForTheSameKey() {
+        assertThat(IdempotencyService.resourceId(SCOPE, "key-1")).isEqualTo(IdempotencyService.resourceId(SCOPE, "key-1"));
+        assertThat(IdempotencyService.resourceId(SCOPE, "key-1")).isNotEqualTo(IdempotencyService.resourceId(SCOPE, "key-2"));
+        assertThat(IdempotencyService.resourceId(SCOPE, "key-1")).isNotEqualTo(IdempotencyService.resourceId("ws-2:user-1", "key-1"));
+    }
+
+    private ResponseEntity<FormSubmissionResponse> execute(String fingerprint, HttpStatus status) {
+        return service.execute(SCOPE, "key-1", fingerprint, FormSubmissionResponse.class,
+                () -> status.is5xxServerError() ? countCall(ResponseEntity.status(status).build()) : respond());
+    }
+
+    private ResponseEntity<FormSubmissionResponse> respond() {
+        return countCall(ResponseEntity.status(HttpStatus.CREATED)
+                .body(new FormSubmissionResponse("sub-1", "form-1", 3, LocalDateTime.of(2024, 5, 1, 12, 0))));
+    }
+
+    private ResponseEntity<FormSubmissionResponse> countCall(ResponseEntity<FormSubmissionResponse> response) {
+        calls.incrementAndGet();
+        return response;
+    }
+}
@@ -0,0 +1,64 @@
+package com.ginkgooai.core.gatekeeper.idempotency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalBloomFilterTest {
+
+    private static final long ONE_DAY = 24 * 60 * 60 * 1000L;
+
+    @Test
+    void neverReportsAnInsertedKeyAsMissing() {
+        LocalBloomFilter filter = new LocalBloomFilter(10_000, 0.01, ONE_DAY);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("key-" + i));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("key-" + i))).isTrue();
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheConfiguredRate() {
+        LocalBloomFilter filter = new LocalBloomFilter(10_000, 0.01, ONE_DAY);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("key-" + i));
+
+        long falsePositives = IntStream.range(0, 10_000).filter(i -> filter.mightContain("other-" + i)).count();
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void keepsThePreviousGenerationAfterRotatingOnInsertions() {
+        LocalBloomFilter filter = new LocalBloomFilter(100, 0.01, ONE_DAY);
+        IntStream.range(0, 100).forEach(i -> filter.put("first-" + i));
+        // The first put past the expected insertions starts a new generation
+        IntStream.range(0, 100).forEach(i -> filter.put("second-" + i));
+
+        assertThat(IntStream.range(0, 100).allMatch(i -> filter.mightContain("first-" + i))).isTrue();
+        assertThat(IntStream.range(0, 100).allMatch(i -> filter.mightContain("second-" + i))).isTrue();
+    }
+
+    @Test
+    void forgetsKeysTwoGenerationsOld() {
+        LocalBloomFilter filter = new LocalBloomFilter(100, 0.01, ONE_DAY);
+        IntStream.range(0, 100).forEach(i -> filter.put("first-" + i));
+        IntStream.range(0, 100).forEach(i -> filter.put("second-" + i));
+        filter.put("third");
+
+        long remembered = IntStream.range(0, 100).filter(i -> filter.mightContain("first-" + i)).count();
+        assertThat(remembered).isLessThan(10);
+        assertThat(filter.mightContain("third")).isTrue();
+    }
+
+    @Test
+    void rotatesOnAge() {
+        LocalBloomFilter filter = new LocalBloomFilter(1_000, 0.001, 0);
+        filter.put("a");
+        filter.put("b");
+        filter.put("c");
+
+        assertThat(filter.mightContain("a")).isFalse();
+        assertThat(filter.mightContain("b")).isTrue();
+        assertThat(filter.mightContain("c")).isTrue();
+    }
+}
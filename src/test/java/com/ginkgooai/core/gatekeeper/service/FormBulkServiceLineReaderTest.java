@@ -0,0 +1,66 @@
+package com.ginkgooai.core.gatekeeper.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FormBulkServiceLineReaderTest {
+
+    @Test
+    void splitsLinesAndStripsCarriageReturns() throws IOException {
+        assertThat(lines("{\"a\":1}\r\n\n{\"b\":2}", 100)).containsExactly("{\"a\":1}", "", "{\"b\":2}");
+    }
+
+    @Test
+    void doesNotReportATrailingEmptyLine() throws IOException {
+        assertThat(lines("one\ntwo\n", 100)).containsExactly("one", "two");
+    }
+
+    @Test
+    void decodesMultiByteCharacters() throws IOException {
+        assertThat(lines("名前\nnäme", 100)).containsExactly("名前", "näme");
+    }
+
+    @Test
+    void skipsTheRestOfAnOverlongLineAndCarriesOn() throws IOException {
+        assertThat(lines("short\n" + "x".repeat(50) + "\nafter", 10)).containsExactly("short", null, "after");
+    }
+
+    @Test
+    void holdsAtMostTheCapForAnInputWithoutNewlines() throws IOException {
+        // 64 MB of a single line is never materialised; only the cap is buffered
+        InputStream endless = new InputStream() {
+            private long remaining = 64L * 1024 * 1024;
+
+            @Override
+            public int read() {
+                return remaining-- > 0 ? 'x' : -1;
+            }
+        };
+        FormBulkService.LineReader reader = new FormBulkService.LineReader(endless, 1024);
+
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.overflowed()).isTrue();
+        assertThat(reader.next()).isFalse();
+    }
+
+    /**
+     * Lines read with the given cap, with {@code null} for lines that went over it.
+     */
+    private static List<String> lines(String input, int maxBytes) throws IOException {
+        FormBulkService.LineReader reader = new FormBulkService.LineReader(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), maxBytes);
+        List<String> lines = new ArrayList<>();
+        while (reader.next()) {
+            lines.add(reader.overflowed() ? null : reader.line());
+        }
+        return lines;
+    }
+}
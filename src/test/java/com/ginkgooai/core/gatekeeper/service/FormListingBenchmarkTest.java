@@ -0,0 +1,147 @@
+package com.ginkgooai.core.gatekeeper.service;
+
+import com.ginkgooai.core.gatekeeper.dto.CursorPage;
+import com.ginkgooai.core.gatekeeper.dto.form.FormSummary;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset listing latency by page depth, measured through {@link FormQueryService} so the
+ * benchmark always runs the query that ships.
+ * <p>
+ * Migrates the target database with the application's Flyway scripts, replaces all forms with
+ * generated rows (half of them in workspace ws-1) and asserts that a page 200 000 rows deep
+ * stays within a fixed factor of the first page and is served by an index. Opt-in, and it
+ * TRUNCATES {@code form_definition}, so point it at a scratch database:
+ * <pre>
+ * mvn test -Dtest=FormListingBenchmarkTest -Dbenchmark.postgres=true \
+ *     -Dbenchmark.postgres.url=jdbc:postgresql://localhost:5432/scratch?currentSchema=workspace \
+ *     -Dbenchmark.postgres.user=postgres -Dbenchmark.postgres.password=postgres
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.postgres", matches = "true")
+class FormListingBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(FormListingBenchmarkTest.class);
+
+    private static final int ROWS = Integer.getInteger("benchmark.postgres.rows", 2_000_000);
+
+    private static final int RUNS = Integer.getInteger("benchmark.postgres.runs", 20);
+
+    private static final double MAX_DEPTH_FACTOR = Double.parseDouble(System.getProperty("benchmark.postgres.maxFactor", "3"));
+
+    /**
+     * Absolute allowance on top of the factor, so sub-millisecond first pages do not make the
+     * assertion flaky.
+     */
+    private static final Duration SLACK = Duration.ofMillis(Long.getLong("benchmark.postgres.slackMillis", 5));
+
+    private static final String WORKSPACE = "ws-1";
+
+    private static final String STATUS = "ACTIVE";
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private static FormQueryService service;
+
+    @BeforeAll
+    static void seed() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("benchmark.postgres.url",
+                        "jdbc:postgresql://localhost:5432/gatekeeper_benchmark?currentSchema=workspace"),
+                System.getProperty("benchmark.postgres.user", "postgres"),
+                System.getProperty("benchmark.postgres.password", "postgres"));
+        // Same settings as spring.flyway in application.yaml
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .schemas("workspace")
+                .table("flyway_workspace_history")
+                .load()
+                .migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("TRUNCATE form_submission, form_definition");
+        jdbcTemplate.update("""
+                INSERT INTO form_definition (id, workspace_id, name, description, status, version, schema, created_at, updated_at)
+                SELECT md5(g::text)::uuid::text,
+                       CASE WHEN g % 2 = 0 THEN 'ws-1' ELSE 'ws-' || (2 + g % 49) END,
+                       (ARRAY ['Onboarding', 'KYC', 'Compliance', 'Survey', 'Feedback'])[1 + g % 5] || ' form ' || g,
+                       NULL,
+                       (ARRAY ['DRAFT', 'ACTIVE', 'ARCHIVED'])[1 + g % 3],
+                       1 + g % 7,
+                       '{"fields": []}'::jsonb,
+                       now() - (g || ' seconds')::interval,
+                       now() - ((g::bigint * 7919) % ? || ' seconds')::interval
+                FROM generate_series(1, ?) AS g
+                """, ROWS, ROWS);
+        jdbcTemplate.execute("ANALYZE form_definition");
+        service = new FormQueryService(jdbcTemplate);
+    }
+
+    @Test
+    void deepKeysetPagesCostAboutTheSameAsTheFirst() {
+        Duration first = median(() -> service.list(WORKSPACE, null, STATUS, null, FormQueryService.DEFAULT_PAGE_SIZE));
+        String shallowCursor = cursorAtDepth(20_000);
+        Duration shallow = median(() -> service.list(WORKSPACE, null, STATUS, shallowCursor, FormQueryService.DEFAULT_PAGE_SIZE));
+        String deepCursor = cursorAtDepth(200_000);
+        Duration deep = median(() -> service.list(WORKSPACE, null, STATUS, deepCursor, FormQueryService.DEFAULT_PAGE_SIZE));
+        Duration search = median(() -> service.list(WORKSPACE, "form 12345", null, null, FormQueryService.DEFAULT_PAGE_SIZE));
+
+        log.info("rows={}, median of {} runs: first page {}us, depth 20000 {}us, depth 200000 {}us, name search {}us",
+                ROWS, RUNS, first.toNanos() / 1000, shallow.toNanos() / 1000, deep.toNanos() / 1000, search.toNanos() / 1000);
+
+        assertThat(deep).isLessThanOrEqualTo(Duration.ofNanos((long) (first.toNanos() * MAX_DEPTH_FACTOR)).plus(SLACK));
+        assertThat(plan(deepCursor)).contains("idx_form_definition_ws_status_updated").doesNotContain("Sort", "Seq Scan");
+    }
+
+    /**
+     * Cursor of the row at the given depth of the listing, as the previous page would have returned it.
+     */
+    private static String cursorAtDepth(int depth) {
+        FormSummary row = jdbcTemplate.queryForObject("""
+                SELECT id, name, status, version, updated_at
+                FROM form_definition
+                WHERE workspace_id = ? AND status = ?
+                ORDER BY updated_at DESC, id DESC
+                OFFSET ? LIMIT 1
+                """, (rs, rowNum) -> new FormSummary(rs.getString("id"), rs.getString("name"), rs.getString("status"),
+                rs.getInt("version"), rs.getTimestamp("updated_at").toLocalDateTime()), WORKSPACE, STATUS, depth - 1);
+        return FormQueryService.encodeCursor(row);
+    }
+
+    private static String plan(String cursor) {
+        FormQueryService.Query query = FormQueryService.buildQuery(WORKSPACE, null, STATUS, cursor,
+                FormQueryService.DEFAULT_PAGE_SIZE);
+        List<String> lines = jdbcTemplate.queryForList("EXPLAIN " + query.sql(), String.class, query.args().toArray());
+        return String.join("\n", lines);
+    }
+
+    private static Duration median(Supplier<CursorPage<FormSummary>> page) {
+        for (int i = 0; i < 5; i++) {
+            assertThat(page.get().getItems()).isNotEmpty();
+        }
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long startTime = System.nanoTime();
+            page.get();
+            nanos[i] = System.nanoTime() - startTime;
+        }
+        Arrays.sort(nanos);
+        return Duration.ofNanos(nanos[RUNS / 2]);
+    }
+}
@@ -0,0 +1,85 @@
+package com.ginkgooai.core.gatekeeper.service;
+
+import com.ginkgooai.core.gatekeeper.dto.form.FormSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FormQueryServiceTest {
+
+    @Test
+    void cursorRoundTripsTheLastRowKey() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+        String cursor = FormQueryService.encodeCursor(new FormSummary("form-1", "Intake", "ACTIVE", 2, updatedAt));
+
+        FormQueryService.Key key = FormQueryService.decodeCursor(cursor);
+
+        assertThat(key.updatedAt()).isEqualTo(updatedAt);
+        assertThat(key.id()).isEqualTo("form-1");
+        assertThat(cursor).doesNotContain("=", "+", "/");
+    }
+
+    @Test
+    void cursorRoundTripsWholeMinutesAndIdsContainingTheSeparator() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        String cursor = FormQueryService.encodeCursor(new FormSummary("a|b", "Intake", "ACTIVE", 1, updatedAt));
+
+        FormQueryService.Key key = FormQueryService.decodeCursor(cursor);
+
+        assertThat(key.updatedAt()).isEqualTo(updatedAt);
+        assertThat(key.id()).isEqualTo("a|b");
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        String noSeparator = Base64.getUrlEncoder().encodeToString("2024-05-01T12:00".getBytes(StandardCharsets.UTF_8));
+        String badDate = Base64.getUrlEncoder().encodeToString("yesterday|form-1".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : new String[]{"not base64!", noSeparator, badDate}) {
+            assertThatThrownBy(() -> FormQueryService.decodeCursor(cursor))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        }
+    }
+
+    @Test
+    void firstPageFiltersByWorkspaceOnly() {
+        FormQueryService.Query query = FormQueryService.buildQuery("ws-1", null, " ", null, 20);
+
+        assertThat(query.sql())
+                .contains("WHERE workspace_id = ?")
+                .doesNotContain("status = ?", "ILIKE", "(updated_at, id) <")
+                .endsWith("ORDER BY updated_at DESC, id DESC LIMIT ?");
+        assertThat(query.args()).containsExactly("ws-1", 21);
+    }
+
+    @Test
+    void appliesEveryFilterInPlaceholderOrder() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 30);
+        String cursor = FormQueryService.encodeCursor(new FormSummary("form-9", "Intake", "ACTIVE", 1, updatedAt));
+
+        FormQueryService.Query query = FormQueryService.buildQuery("ws-1", "  intake ", "ACTIVE", cursor, 50);
+
+        assertThat(query.sql())
+                .contains("AND status = ?")
+                .contains("AND name ILIKE ? ESCAPE '\\'")
+                .contains("AND (updated_at, id) < (?, ?)");
+        assertThat(query.args()).containsExactly("ws-1", "ACTIVE", "%intake%", Timestamp.valueOf(updatedAt), "form-9", 51);
+        assertThat(query.sql().chars().filter(c -> c == '?').count()).isEqualTo(query.args().size());
+    }
+
+    @Test
+    void escapesLikeWildcardsInTheSearchTerm() {
+        FormQueryService.Query query = FormQueryService.buildQuery("ws-1", "100%_done\\", null, null, 20);
+
+        assertThat(query.args()).contains("%100\\%\\_done\\\\%");
+    }
+}
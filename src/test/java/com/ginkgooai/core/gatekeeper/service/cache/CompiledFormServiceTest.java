@@ -0,0 +1,330 @@
+package com.ginkgooai.core.gatekeeper.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ginkgooai.core.gatekeeper.config.datasource.TenantContext;
+import com.ginkgooai.core.gatekeeper.dto.form.CompiledForm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RBatch;
+import org.redisson.api.RBucket;
+import org.redisson.api.RKeys;
+import org.redisson.api.RLock;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RScoredSortedSetAsync;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.client.codec.Codec;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CompiledFormServiceTest {
+
+    private static final String SNAPSHOT = "gatekeeper:form:compiled:ws-1:form-1";
+
+    private static final String MISSING = "gatekeeper:form:missing:ws-1:form-1";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * String values in Redis by key.
+     */
+    private final Map<String, String> redis = new ConcurrentHashMap<>();
+
+    /**
+     * Reads per key through the replica client and through Redisson (the primary).
+     */
+    private final Map<String, Integer> replicaReads = new ConcurrentHashMap<>();
+
+    private final Map<String, Integer> primaryReads = new ConcurrentHashMap<>();
+
+    private RedissonClient redissonClient;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private RTopic topic;
+
+    private RLock lock;
+
+    private CompiledFormService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws InterruptedException {
+        redissonClient = mock(RedissonClient.class);
+        when(redissonClient.<String>getBucket(anyString(), any(Codec.class)))
+                .thenAnswer(invocation -> bucket(invocation.getArgument(0)));
+
+        topic = mock(RTopic.class);
+        when(redissonClient.getTopic(anyString(), any(Codec.class))).thenReturn(topic);
+
+        lock = mock(RLock.class);
+        when(lock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
+        when(lock.isHeldByCurrentThread()).thenReturn(true);
+        when(redissonClient.getLock(anyString())).thenReturn(lock);
+
+        RKeys keys = mock(RKeys.class);
+        when(keys.delete(any(String[].class))).thenAnswer(invocation -> {
+            long deleted = 0;
+            for (Object key : invocation.getArguments()) {
+                deleted += redis.remove((String) key) != null ? 1 : 0;
+            }
+            return deleted;
+        });
+        when(redissonClient.getKeys()).thenReturn(keys);
+
+        StringRedisTemplate replicaTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(replicaTemplate.opsForValue()).thenReturn(values);
+        when(values.get(anyString())).thenAnswer(invocation -> {
+            replicaReads.merge(invocation.getArgument(0), 1, Integer::sum);
+            return redis.get(invocation.<String>getArgument(0));
+        });
+        when(replicaTemplate.hasKey(anyString())).thenAnswer(invocation -> {
+            replicaReads.merge(invocation.getArgument(0), 1, Integer::sum);
+            return redis.containsKey(invocation.<String>getArgument(0));
+        });
+
+        jdbcTemplate = mock(JdbcTemplate.class);
+        service = new CompiledFormService(redissonClient, replicaTemplate, jdbcTemplate, objectMapper, mock(ApplicationEventPublisher.class),
+                100, Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofSeconds(1), Duration.ofSeconds(10),
+                3, 0.5, 3_600_000);
+        service.subscribe();
+    }
+
+    @Test
+    void servesThePublishedSnapshotWithoutTouchingPostgres() throws Exception {
+        redis.put(SNAPSHOT, objectMapper.writeValueAsString(form("ws-1")));
+
+        assertThat(service.get("ws-1", "form-1")).hasValueSatisfying(form -> assertThat(form.getVersion()).isEqualTo(3));
+        verify(lock, never()).tryLock(anyLong(), anyLong(), any(TimeUnit.class));
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), eq("form-1"), eq("ws-1"));
+    }
+
+    @Test
+    void looksUpSnapshotsAndMarkersOnReplicas() throws Exception {
+        redis.put(SNAPSHOT, objectMapper.writeValueAsString(form("ws-1")));
+        redis.put("gatekeeper:form:missing:ws-1:form-2", "1");
+
+        service.load("ws-1", "form-1");
+        service.load("ws-1", "form-2");
+
+        assertThat(replicaReads).containsKeys(SNAPSHOT, "gatekeeper:form:missing:ws-1:form-2");
+        assertThat(primaryReads).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void readsAnnouncedChangesFromThePrimary() throws Exception {
+        ArgumentCaptor<MessageListener<String>> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(topic).addListener(eq(String.class), listener.capture());
+        redis.put(SNAPSHOT, objectMapper.writeValueAsString(form("ws-1")));
+
+        listener.getValue().onMessage("gatekeeper:form:activated", "ws-1:form-1");
+
+        assertThat(primaryReads.get(SNAPSHOT)).isEqualTo(1);
+        // Served from the local copy the announcement put there
+        assertThat(service.load("ws-1", "form-1")).isPresent();
+        assertThat(replicaReads).doesNotContainKey(SNAPSHOT);
+    }
+
+    @Test
+    void servesRepeatedReadsFromTheLocalCache() throws Exception {
+        redis.put(SNAPSHOT, objectMapper.writeValueAsString(form("ws-1")));
+
+        service.get("ws-1", "form-1");
+        service.get("ws-1", "form-1");
+        service.get("ws-1", "form-1");
+
+        assertThat(replicaReads.get(SNAPSHOT)).isEqualTo(1);
+    }
+
+    @Test
+    void compilesUnderTheLockWhenNothingIsPublished() throws InterruptedException {
+        activeInPostgres();
+
+        assertThat(service.load("ws-1", "form-1")).isPresent();
+
+        verify(lock).tryLock(anyLong(), anyLong(), any(TimeUnit.class));
+        // Re-checked on the primary under the lock before compiling
+        assertThat(primaryReads.get(SNAPSHOT)).isEqualTo(1);
+        verify(lock).unlock();
+        assertThat(redis).containsKey(SNAPSHOT);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void readsPostgresOnBehalfOfTheFormsWorkspace() {
+        // Warmup runs without a request, so nothing has set the tenant beforehand
+        List<String> tenants = new ArrayList<>();
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("form-1"), eq("ws-s"))).thenAnswer(invocation -> {
+            tenants.add(TenantContext.current());
+            return List.of("ACTIVE");
+        });
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("form-1"), eq("ws-s"))).thenAnswer(invocation -> {
+            tenants.add(TenantContext.current());
+            return List.of(form("ws-s"));
+        });
+
+        assertThat(service.load("ws-s", "form-1")).isPresent();
+
+        assertThat(tenants).containsExactly("ws-s", "ws-s");
+        assertThat(TenantContext.current()).isNull();
+        assertThat(redis).containsKey("gatekeeper:form:compiled:ws-s:form-1");
+    }
+
+    @Test
+    void remembersMissingFormsPerWorkspace() {
+        activeInPostgres();
+
+        // Not in ws-2's schema, which must not hide it from ws-1
+        assertThat(service.load("ws-2", "form-1")).isEmpty();
+        assertThat(service.load("ws-1", "form-1")).isPresent();
+
+        assertThat(redis).containsKey("gatekeeper:form:missing:ws-2:form-1").doesNotContainKey(MISSING);
+    }
+
+    @Test
+    void remembersAnInactiveFormWithoutLockingOrQueryingAgain() throws InterruptedException {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("form-1"), eq("ws-1"))).thenReturn(List.of("DRAFT"));
+
+        assertThat(service.load("ws-1", "form-1")).isEmpty();
+        assertThat(service.load("ws-1", "form-1")).isEmpty();
+
+        assertThat(redis).containsKey(MISSING);
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(String.class), eq("form-1"), eq("ws-1"));
+        verify(lock, never()).tryLock(anyLong(), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    void honoursAMissingMarkerPublishedByAnotherNode() {
+        redis.put(MISSING, "1");
+
+        assertThat(service.load("ws-1", "form-1")).isEmpty();
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), eq("form-1"), eq("ws-1"));
+    }
+
+    @Test
+    void evictDropsTheSnapshotAndMarkerAndTellsOtherNodes() throws Exception {
+        redis.put(SNAPSHOT, objectMapper.writeValueAsString(form("ws-1")));
+        service.load("ws-1", "form-1");
+        redis.put(MISSING, "1");
+
+        service.evict("ws-1", List.of("form-1"));
+
+        assertThat(redis).doesNotContainKeys(SNAPSHOT, MISSING);
+        verify(topic).publishAsync("ws-1:form-1");
+        // The local copy is gone too, so the next read goes back to Redis
+        service.load("ws-1", "form-1");
+        assertThat(replicaReads.get(SNAPSHOT)).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void countsHitsLocallyAndFlushesThemInOneBatch() throws Exception {
+        redis.put(SNAPSHOT, objectMapper.writeValueAsString(form("ws-1")));
+        RBatch batch = mock(RBatch.class);
+        RScoredSortedSetAsync<String> stats = mock(RScoredSortedSetAsync.class);
+        when(batch.<String>getScoredSortedSet(anyString(), any(Codec.class))).thenReturn(stats);
+        when(redissonClient.createBatch()).thenReturn(batch);
+
+        service.get("ws-1", "form-1");
+        service.get("ws-1", "form-1");
+        // A read from another workspace is not a hit
+        service.get("ws-2", "form-1");
+        verify(redissonClient, never()).createBatch();
+
+        service.flushAccessStats();
+        verify(stats).addScoreAsync("ws-1:form-1", 2L);
+        verify(batch).execute();
+
+        service.flushAccessStats();
+        verify(redissonClient, times(1)).createBatch();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void boundsTheFormsCountedBetweenFlushes() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            CompiledForm form = form("ws-1");
+            form.setId("form-" + i);
+            redis.put("gatekeeper:form:compiled:ws-1:form-" + i, objectMapper.writeValueAsString(form));
+            service.get("ws-1", "form-" + i);
+        }
+        RBatch batch = mock(RBatch.class);
+        RScoredSortedSetAsync<String> stats = mock(RScoredSortedSetAsync.class);
+        when(batch.<String>getScoredSortedSet(anyString(), any(Codec.class))).thenReturn(stats);
+        when(redissonClient.createBatch()).thenReturn(batch);
+
+        service.flushAccessStats();
+
+        // The access set holds 3 forms, so no more are counted
+        verify(stats, times(3)).addScoreAsync(anyString(), any(Number.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void listsTheHottestFormsWithTheirWorkspaces() {
+        RScoredSortedSet<String> stats = mock(RScoredSortedSet.class);
+        when(stats.valueRangeReversed(0, 9)).thenReturn(List.of("ws-1:form-1", "form-legacy", "ws-2:form-2"));
+        when(redissonClient.<String>getScoredSortedSet(anyString(), any(Codec.class))).thenReturn(stats);
+
+        // Entries from before counts were kept per workspace cannot be routed and are skipped
+        assertThat(service.hottest(10)).containsExactly(
+                new CompiledFormService.FormKey("ws-1", "form-1"),
+                new CompiledFormService.FormKey("ws-2", "form-2"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void activeInPostgres() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("form-1"), eq("ws-1"))).thenReturn(List.of("ACTIVE"));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("form-1"), eq("ws-1"))).thenReturn(List.of(form("ws-1")));
+    }
+
+    private CompiledForm form(String workspaceId) {
+        CompiledForm form = new CompiledForm();
+        form.setId("form-1");
+        form.setWorkspaceId(workspaceId);
+        form.setName("Intake");
+        form.setVersion(3);
+        form.setSchema(objectMapper.createObjectNode());
+        return form;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RBucket<String> bucket(String key) {
+        RBucket<String> bucket = mock(RBucket.class);
+        when(bucket.get()).thenAnswer(invocation -> {
+            primaryReads.merge(key, 1, Integer::sum);
+            return redis.get(key);
+        });
+        when(bucket.delete()).thenAnswer(invocation -> redis.remove(key) != null);
+        doAnswer(invocation -> redis.put(key, invocation.getArgument(0))).when(bucket).set(anyString());
+        doAnswer(invocation -> redis.put(key, invocation.getArgument(0)))
+                .when(bucket).set(anyString(), anyLong(), any(TimeUnit.class));
+        return bucket;
+    }
+}
@@ -0,0 +1,282 @@
+package com.ginkgooai.core.gatekeeper.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ginkgooai.core.gatekeeper.config.RedisTopologyProperties;
+import com.ginkgooai.core.gatekeeper.config.cache.RedisConfig;
+import com.ginkgooai.core.gatekeeper.dto.form.CompiledForm;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Throughput of the form cache's Redis lookups against 0..N replicas, with local redis-server
+ * processes standing in for a primary and its replicas.
+ * <p>
+ * Reads go through {@link CompiledFormService#load} with the local cache disabled, so every
+ * call performs the same snapshot lookup as a production cache miss, over a
+ * {@link LettuceConnectionFactory} built like the production one: the configured
+ * {@code ReadFrom}, the production pool settings and Lettuce's replica discovery from the
+ * primary. Total client concurrency is fixed, so differences between rows come from where the
+ * reads land, not from adding load. Opt-in, and needs redis-server on the PATH:
+ * <pre>
+ * mvn test -Dtest=RedisReplicaReadBenchmarkTest -Dbenchmark.redis=true [-Dbenchmark.redis.readFrom=replicaPreferred]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.redis", matches = "true")
+class RedisReplicaReadBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisReplicaReadBenchmarkTest.class);
+
+    private static final int BASE_PORT = Integer.getInteger("benchmark.redis.basePort", 17000);
+
+    private static final int MAX_REPLICAS = Integer.getInteger("benchmark.redis.maxReplicas", 3);
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.redis.concurrency", 64);
+
+    private static final int FORMS = Integer.getInteger("benchmark.redis.forms", 10_000);
+
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("benchmark.redis.seconds", 10));
+
+    private static final String READ_FROM = System.getProperty("benchmark.redis.readFrom",
+            new RedisTopologyProperties().getLettuce().getReadFrom());
+
+    private static final Pattern GET_CALLS = Pattern.compile("cmdstat_get:calls=(\\d+)");
+
+    private final List<Process> servers = new ArrayList<>();
+
+    @AfterEach
+    void stopServers() throws InterruptedException {
+        for (Process server : servers) {
+            server.destroy();
+            server.waitFor(5, TimeUnit.SECONDS);
+        }
+        servers.clear();
+    }
+
+    @Test
+    void readThroughputByReplicaCount() throws Exception {
+        Assumptions.assumeTrue(redisServerAvailable(), "redis-server is not on the PATH");
+
+        Map<Integer, Double> results = new LinkedHashMap<>();
+        for (int replicas = 0; replicas <= MAX_REPLICAS; replicas++) {
+            results.put(replicas, run(replicas));
+            stopServers();
+        }
+
+        log.info("readFrom={}, concurrency={}, {}s per row", READ_FROM, CONCURRENCY, DURATION.toSeconds());
+        results.forEach((replicas, opsPerSecond) ->
+                log.info("replicas={} lookups/s={}", replicas, String.format("%.0f", opsPerSecond)));
+    }
+
+    private double run(int replicas) throws Exception {
+        int primary = BASE_PORT;
+        startServer(primary);
+        List<Integer> replicaPorts = new ArrayList<>();
+        for (int i = 1; i <= replicas; i++) {
+            startServer(BASE_PORT + i, "--replicaof", "127.0.0.1", String.valueOf(primary));
+            replicaPorts.add(BASE_PORT + i);
+        }
+        // Replicas must be attached before the factory connects so discovery sees them
+        for (int port : replicaPorts) {
+            awaitReplication(port);
+        }
+
+        LettuceConnectionFactory factory = connectionFactory(primary);
+        try {
+            StringRedisTemplate template = new StringRedisTemplate(factory);
+            ObjectMapper objectMapper = new ObjectMapper();
+            for (int f = 0; f < FORMS; f++) {
+                CompiledForm form = form(f);
+                template.opsForValue().set(CompiledFormService.SNAPSHOT_KEY + form.getWorkspaceId() + ":" + form.getId(),
+                        objectMapper.writeValueAsString(form));
+            }
+            // No local cache, so every load is a snapshot lookup through the cache client
+            CompiledFormService service = new CompiledFormService(mock(RedissonClient.class), template,
+                    mock(JdbcTemplate.class), objectMapper, mock(ApplicationEventPublisher.class),
+                    0, Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofSeconds(10), Duration.ofSeconds(60),
+                    FORMS, 0.5, 3_600_000);
+            for (int port : replicaPorts) {
+                awaitKeys(port);
+            }
+
+            List<Integer> nodes = new ArrayList<>(replicaPorts);
+            nodes.addFirst(primary);
+            nodes.forEach(port -> admin(port, connection -> connection.sync().configResetstat()));
+
+            long ops = load(service);
+
+            Map<Integer, Long> gets = new LinkedHashMap<>();
+            nodes.forEach(port -> gets.put(port, admin(port, connection -> getCalls(connection.sync().info("commandstats")))));
+            log.info("replicas={} GETs per node: {}", replicas, gets);
+            if (replicas > 0) {
+                assertThat(gets.get(primary)).as("GETs served by the primary").isZero();
+                for (int port : replicaPorts) {
+                    assertThat(gets.get(port)).as("GETs served by replica on port %d", port).isPositive();
+                }
+            }
+            return ops / (double) DURATION.toSeconds();
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    private static LettuceConnectionFactory connectionFactory(int port) {
+        // Same values as spring.data.redis.lettuce.pool in application.yaml
+        RedisProperties.Pool pool = new RedisProperties.Pool();
+        pool.setMaxActive(32);
+        pool.setMaxIdle(16);
+        pool.setMinIdle(4);
+        pool.setMaxWait(Duration.ofSeconds(2));
+
+        LettucePoolingClientConfiguration clientConfiguration = LettucePoolingClientConfiguration.builder()
+                .poolConfig(RedisConfig.lettucePoolConfig(pool))
+                .readFrom(RedisConfig.readFrom(READ_FROM))
+                .build();
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("127.0.0.1", port), clientConfiguration);
+        factory.afterPropertiesSet();
+        factory.start();
+        return factory;
+    }
+
+    private static long load(CompiledFormService service) throws Exception {
+        LongAdder ops = new LongAdder();
+        long deadline = System.nanoTime() + DURATION.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                workers.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        int f = random.nextInt(FORMS);
+                        if (service.load(workspace(f), "form-" + f).isEmpty()) {
+                            throw new IllegalStateException("Published snapshot not found");
+                        }
+                        ops.increment();
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return ops.sum();
+    }
+
+    private void startServer(int port, String... extraArgs) throws Exception {
+        List<String> command = new ArrayList<>(List.of("redis-server", "--port", String.valueOf(port),
+                "--save", "", "--appendonly", "no"));
+        command.addAll(List.of(extraArgs));
+        servers.add(new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start());
+        await(() -> "PONG".equals(admin(port, connection -> connection.sync().ping())), "redis-server on port " + port);
+    }
+
+    private static void awaitReplication(int port) throws InterruptedException {
+        await(() -> admin(port, connection -> connection.sync().info("replication")).contains("master_link_status:up"),
+                "replica on port " + port + " to sync");
+    }
+
+    private static void awaitKeys(int port) throws InterruptedException {
+        await(() -> admin(port, connection -> connection.sync().dbsize()) >= FORMS,
+                "replica on port " + port + " to receive the keys");
+    }
+
+    private static <T> T admin(int port, Function<StatefulRedisConnection<String, String>, T> command) {
+        RedisClient client = RedisClient.create(RedisURI.create("127.0.0.1", port));
+        try (StatefulRedisConnection<String, String> connection = client.connect()) {
+            return command.apply(connection);
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    private static void await(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            try {
+                if (condition.getAsBoolean()) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                // Not reachable yet
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("Timed out waiting for " + what);
+    }
+
+    private static CompiledForm form(int index) {
+        CompiledForm form = new CompiledForm();
+        form.setId("form-" + index);
+        form.setWorkspaceId(workspace(index));
+        form.setName("Form " + index);
+        form.setVersion(1);
+        form.setSchema(new ObjectMapper().createObjectNode());
+        form.setCompiledAt(System.currentTimeMillis());
+        return form;
+    }
+
+    private static String workspace(int index) {
+        return "ws-" + index % 50;
+    }
+
+    private static long getCalls(String commandStats) {
+        Matcher matcher = GET_CALLS.matcher(commandStats);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    private static boolean redisServerAvailable() {
+        try {
+            return new ProcessBuilder("redis-server", "--version")
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start()
+                    .waitFor(5, TimeUnit.SECONDS);
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}